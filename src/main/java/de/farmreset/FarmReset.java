@@ -1,12 +1,25 @@
 package de.farmreset;
 
+import de.farmreset.api.ResetPipeline;
+import de.farmreset.cluster.FileResetCoordinator;
+import de.farmreset.cluster.LocalResetCoordinator;
+import de.farmreset.cluster.ResetCoordinator;
 import de.farmreset.commands.FarmCommand;
+import de.farmreset.listeners.FarmBoundsListener;
 import de.farmreset.listeners.PlayerJoinListener;
+import de.farmreset.manager.BorderManager;
 import de.farmreset.manager.BossbarManager;
 import de.farmreset.manager.DataManager;
+import de.farmreset.manager.PopulationTracker;
+import de.farmreset.manager.ResetEstimator;
 import de.farmreset.manager.ResetManager;
+import de.farmreset.scheduler.BukkitTaskScheduler;
+import de.farmreset.scheduler.FoliaTaskScheduler;
+import de.farmreset.scheduler.TaskScheduler;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
 import java.util.logging.Logger;
 
 public class FarmReset extends JavaPlugin {
@@ -15,6 +28,17 @@ public class FarmReset extends JavaPlugin {
     private DataManager dataManager;
     private BossbarManager bossbarManager;
     private ResetManager resetManager;
+    private BorderManager borderManager;
+    private PopulationTracker populationTracker;
+    private ResetEstimator resetEstimator;
+    private ResetCoordinator resetCoordinator;
+    private TaskScheduler taskScheduler;
+
+    @Override
+    public void onLoad() {
+        // Vorgemerkte Welten zurücksetzen, falls der Offline-Reset nicht im Startskript gelaufen ist
+        ResetManager.runPendingResets(this);
+    }
 
     @Override
     public void onEnable() {
@@ -26,18 +50,34 @@ public class FarmReset extends JavaPlugin {
 
         // Manager initialisieren
         saveDefaultConfig();
+        taskScheduler = FoliaTaskScheduler.isSupported() ? new FoliaTaskScheduler(this) : new BukkitTaskScheduler(this);
+        if (taskScheduler.isFolia()) {
+            logger.info("Folia erkannt, verwende regionalisierte Scheduler.");
+        }
         dataManager = new DataManager(this);
         bossbarManager = new BossbarManager(this);
+        borderManager = new BorderManager(this);
+        populationTracker = new PopulationTracker(this);
+        populationTracker.start();
+        resetCoordinator = createResetCoordinator();
+        resetCoordinator.start();
+        resetEstimator = new ResetEstimator(this);
         resetManager = new ResetManager(this);
 
-        // Prüfe ob Spawns nach Neustart gesetzt werden müssen
-        resetManager.checkAndSetSpawnsAfterRestart();
+        // Reset-Pipeline für andere Plugins bereitstellen
+        getServer().getServicesManager().register(ResetPipeline.class, resetManager.getPipeline(), this, ServicePriority.Normal);
+
+        // Farmen asynchron laden, danach prüfen ob Spawns nach Neustart gesetzt werden müssen
+        dataManager.loadDataAsync().thenRun(() -> resetManager.checkAndSetSpawnsAfterRestart());
 
         // Commands registrieren
-        getCommand("farm").setExecutor(new FarmCommand(this));
+        FarmCommand farmCommand = new FarmCommand(this);
+        getCommand("farm").setExecutor(farmCommand);
+        getCommand("farm").setTabCompleter(farmCommand);
 
         // Listener registrieren
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new FarmBoundsListener(this), this);
 
         // Bossbar starten
         bossbarManager.startBossbar();
@@ -50,12 +90,63 @@ public class FarmReset extends JavaPlugin {
         if (bossbarManager != null) {
             bossbarManager.stopBossbar();
         }
+        if (resetManager != null) {
+            resetManager.shutdown();
+        }
+        if (populationTracker != null) {
+            populationTracker.stop();
+        }
+        if (resetCoordinator != null) {
+            resetCoordinator.shutdown();
+        }
         if (dataManager != null) {
             dataManager.saveData();
         }
         getLogger().info("FarmReset Plugin wurde deaktiviert!");
     }
 
+    private ResetCoordinator createResetCoordinator() {
+        String serverId = getConfig().getString("cluster.serverId", "server-1");
+        // Die ID wird als Dateiname im gemeinsamen Verzeichnis verwendet
+        if (serverId == null || !serverId.matches("[A-Za-z0-9_.-]+")) {
+            getLogger().warning("Ungültige cluster.serverId '" + serverId + "', verwende 'server-1'.");
+            serverId = "server-1";
+        }
+        if (!getConfig().getBoolean("cluster.enabled", false)) {
+            return new LocalResetCoordinator(serverId);
+        }
+
+        String sharedPath = getConfig().getString("cluster.sharedDirectory", "cluster");
+        if (sharedPath == null || sharedPath.isBlank()) {
+            getLogger().warning("cluster.sharedDirectory ist leer, verwende 'cluster'.");
+            sharedPath = "cluster";
+        }
+        File sharedDir = new File(sharedPath);
+        if (!sharedDir.isAbsolute()) {
+            sharedDir = new File(getDataFolder(), sharedDir.getPath());
+        }
+        getLogger().info("Cluster-Koordination aktiv (Server '" + serverId + "', Verzeichnis: " + sharedDir.getPath() + ")");
+        return new FileResetCoordinator(
+            this,
+            serverId,
+            sharedDir.toPath(),
+            getClusterValue("leaseSeconds", 900, 60),
+            // Heartbeat läuft alle 20 Sekunden, darunter würden aktive Server als offline gelten
+            getClusterValue("memberTimeoutSeconds", 600, 60),
+            (int) getClusterValue("staggerMinutes", 15, 0),
+            (int) getClusterValue("slot", -1, -1)
+        );
+    }
+
+    private long getClusterValue(String key, long defaultValue, long minimum) {
+        long value = getConfig().getLong("cluster." + key, defaultValue);
+        if (value < minimum) {
+            getLogger().warning("Ungültiger Wert für cluster." + key + " (" + value + "), verwende " + defaultValue + ".");
+            return defaultValue;
+        }
+        return value;
+    }
+
     public static FarmReset getInstance() {
         return instance;
     }
@@ -71,5 +162,25 @@ public class FarmReset extends JavaPlugin {
     public ResetManager getResetManager() {
         return resetManager;
     }
+
+    public BorderManager getBorderManager() {
+        return borderManager;
+    }
+
+    public PopulationTracker getPopulationTracker() {
+        return populationTracker;
+    }
+
+    public ResetEstimator getResetEstimator() {
+        return resetEstimator;
+    }
+
+    public ResetCoordinator getResetCoordinator() {
+        return resetCoordinator;
+    }
+
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
 }
 
@@ -0,0 +1,91 @@
+package de.farmreset.api;
+
+import de.farmreset.models.FarmData;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Zustand des Resets einer Welt, wird an alle Schritte weitergereicht.
+// Liegen mehrere Farmen in derselben Welt, werden sie gemeinsam in einem Durchlauf zurückgesetzt.
+public class ResetContext {
+
+    private final List<FarmData> farms;
+    private final String worldName;
+    private final boolean manual;
+    private volatile File worldFolder;
+    // true, wenn die Dateiarbeit auf den nächsten Start verschoben wurde (Folia)
+    private volatile boolean deferred;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, Long> stageDurations = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public ResetContext(FarmData farm, String worldName, File worldFolder, boolean manual) {
+        this(List.of(farm), worldName, worldFolder, manual);
+    }
+
+    public ResetContext(List<FarmData> farms, String worldName, File worldFolder, boolean manual) {
+        if (farms.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Farm erwartet");
+        }
+        this.farms = List.copyOf(farms);
+        this.worldName = worldName;
+        this.worldFolder = worldFolder;
+        this.manual = manual;
+    }
+
+    // Erste Farm der Welt
+    public FarmData getFarm() {
+        return farms.get(0);
+    }
+
+    // Alle Farmen der Welt, die mit diesem Reset zurückgesetzt werden
+    public List<FarmData> getFarms() {
+        return farms;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public boolean isManual() {
+        return manual;
+    }
+
+    public File getWorldFolder() {
+        return worldFolder;
+    }
+
+    public void setWorldFolder(File worldFolder) {
+        this.worldFolder = worldFolder;
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    public void setDeferred(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    // Freie Ablage für eigene Schritte anderer Plugins
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    public Map<String, Long> getStageDurations() {
+        synchronized (stageDurations) {
+            return new LinkedHashMap<>(stageDurations);
+        }
+    }
+
+    void recordStageDuration(String stageId, long millis) {
+        stageDurations.put(stageId, millis);
+    }
+}
@@ -0,0 +1,147 @@
+package de.farmreset.api;
+
+import de.farmreset.api.event.FarmResetCompleteEvent;
+import de.farmreset.api.event.FarmResetStageCompleteEvent;
+import de.farmreset.api.event.FarmResetStageEvent;
+import de.farmreset.scheduler.TaskScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Ablauf eines Farm-Resets als Folge von Schritten. Andere Plugins bekommen die Pipeline
+ * über den ServicesManager und können eigene Schritte einfügen oder auf die Events reagieren.
+ *
+ * Die Schritte einer Welt laufen nacheinander, mehrere Welten werden unabhängig voneinander
+ * zurückgesetzt, sodass sich z.B. die Dateiarbeit verschiedener Welten überlappt. Farmen in
+ * derselben Welt teilen sich einen Durchlauf (siehe ResetContext#getFarms()).
+ * Events werden immer auf dem Main-Thread ausgelöst.
+ */
+public class ResetPipeline {
+
+    public static final String EVACUATE = "evacuate";
+    public static final String UNLOAD = "unload";
+    public static final String CLEAR = "clear";
+    public static final String RESTORE = "restore";
+    public static final String REGENERATE = "regenerate";
+    public static final String FINALIZE = "finalize";
+
+    private final TaskScheduler scheduler;
+    private final Consumer<Event> events;
+    private final List<ResetStage> stages = new CopyOnWriteArrayList<>();
+
+    public ResetPipeline(TaskScheduler scheduler) {
+        this(scheduler, event -> Bukkit.getPluginManager().callEvent(event));
+    }
+
+    // Für Tests ohne laufenden Server
+    ResetPipeline(TaskScheduler scheduler, Consumer<Event> events) {
+        this.scheduler = scheduler;
+        this.events = events;
+    }
+
+    public List<ResetStage> getStages() {
+        return new ArrayList<>(stages);
+    }
+
+    public synchronized void addStage(ResetStage stage) {
+        stages.add(stage);
+    }
+
+    public synchronized void insertBefore(String stageId, ResetStage stage) {
+        stages.add(indexOf(stageId), stage);
+    }
+
+    public synchronized void insertAfter(String stageId, ResetStage stage) {
+        stages.add(indexOf(stageId) + 1, stage);
+    }
+
+    public synchronized void replace(String stageId, ResetStage stage) {
+        stages.set(indexOf(stageId), stage);
+    }
+
+    public synchronized boolean remove(String stageId) {
+        return stages.removeIf(stage -> stage.getId().equals(stageId));
+    }
+
+    private int indexOf(String stageId) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (stages.get(i).getId().equals(stageId)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unbekannter Reset-Schritt: " + stageId);
+    }
+
+    public CompletableFuture<ResetContext> run(ResetContext context) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (ResetStage stage : getStages()) {
+            chain = chain.thenCompose(ignored -> runStage(stage, context));
+        }
+
+        CompletableFuture<ResetContext> result = new CompletableFuture<>();
+        chain.whenComplete((ignored, error) -> scheduler.runGlobal(() -> {
+            Throwable cause = unwrap(error);
+            events.accept(new FarmResetCompleteEvent(context, cause));
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(context);
+            }
+        }));
+        return result;
+    }
+
+    private CompletableFuture<Void> runStage(ResetStage stage, ResetContext context) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        scheduler.runGlobal(() -> {
+            FarmResetStageEvent event = new FarmResetStageEvent(context, stage.getId());
+            events.accept(event);
+            if (event.isCancelled()) {
+                result.complete(null);
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            Runnable execute = () -> {
+                CompletableFuture<Void> stageFuture;
+                try {
+                    stageFuture = stage.execute(context);
+                } catch (Throwable t) {
+                    stageFuture = CompletableFuture.failedFuture(t);
+                }
+
+                stageFuture.whenComplete((ignored, error) -> scheduler.runGlobal(() -> {
+                    long duration = System.currentTimeMillis() - start;
+                    Throwable cause = unwrap(error);
+                    context.recordStageDuration(stage.getId(), duration);
+                    events.accept(new FarmResetStageCompleteEvent(context, stage.getId(), duration, cause));
+                    if (cause != null) {
+                        result.completeExceptionally(cause);
+                    } else {
+                        result.complete(null);
+                    }
+                }));
+            };
+
+            if (stage.getThread() == StageThread.ASYNC) {
+                scheduler.runAsync(execute);
+            } else {
+                execute.run();
+            }
+        });
+
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,37 @@
+package de.farmreset.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Ein Schritt im Reset-Ablauf einer Farm. Die Pipeline startet {@link #execute(ResetContext)}
+ * auf dem von {@link #getThread()} angegebenen Thread und wartet auf das zurückgegebene Future,
+ * bevor der nächste Schritt beginnt.
+ */
+public interface ResetStage {
+
+    String getId();
+
+    StageThread getThread();
+
+    CompletableFuture<Void> execute(ResetContext context);
+
+    static ResetStage of(String id, StageThread thread, Function<ResetContext, CompletableFuture<Void>> action) {
+        return new ResetStage() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public StageThread getThread() {
+                return thread;
+            }
+
+            @Override
+            public CompletableFuture<Void> execute(ResetContext context) {
+                return action.apply(context);
+            }
+        };
+    }
+}
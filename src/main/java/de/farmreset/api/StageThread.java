@@ -0,0 +1,8 @@
+package de.farmreset.api;
+
+public enum StageThread {
+    // Main-Thread bzw. Global-Region-Thread auf Folia (Welten, Spieler, Bukkit-API)
+    MAIN,
+    // Hintergrund-Thread (Dateizugriffe)
+    ASYNC
+}
@@ -0,0 +1,41 @@
+package de.farmreset.api.event;
+
+import de.farmreset.api.ResetContext;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+// Wird ausgelöst, wenn alle Schritte einer Farm durchlaufen sind oder einer fehlgeschlagen ist
+public class FarmResetCompleteEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final ResetContext context;
+    private final Throwable error;
+
+    public FarmResetCompleteEvent(ResetContext context, Throwable error) {
+        this.context = context;
+        this.error = error;
+    }
+
+    public ResetContext getContext() {
+        return context;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    // null, wenn der Reset erfolgreich war
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
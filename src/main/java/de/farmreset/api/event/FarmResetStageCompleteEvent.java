@@ -0,0 +1,49 @@
+package de.farmreset.api.event;
+
+import de.farmreset.api.ResetContext;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+// Wird nach jedem Schritt ausgelöst, auch wenn er fehlgeschlagen ist
+public class FarmResetStageCompleteEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final ResetContext context;
+    private final String stageId;
+    private final long durationMillis;
+    private final Throwable error;
+
+    public FarmResetStageCompleteEvent(ResetContext context, String stageId, long durationMillis, Throwable error) {
+        this.context = context;
+        this.stageId = stageId;
+        this.durationMillis = durationMillis;
+        this.error = error;
+    }
+
+    public ResetContext getContext() {
+        return context;
+    }
+
+    public String getStageId() {
+        return stageId;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    // null, wenn der Schritt erfolgreich war
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,48 @@
+package de.farmreset.api.event;
+
+import de.farmreset.api.ResetContext;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+// Wird vor jedem Schritt ausgelöst, ein abgebrochenes Event überspringt den Schritt
+public class FarmResetStageEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final ResetContext context;
+    private final String stageId;
+    private boolean cancelled;
+
+    public FarmResetStageEvent(ResetContext context, String stageId) {
+        this.context = context;
+        this.stageId = stageId;
+    }
+
+    public ResetContext getContext() {
+        return context;
+    }
+
+    public String getStageId() {
+        return stageId;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,36 @@
+package de.farmreset.api.event;
+
+import org.bukkit.World;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+// Wird ausgelöst, sobald eine Farm-Welt nach einem Reset neu erstellt und wieder betretbar ist
+public class FarmWorldReadyEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String farmName;
+    private final World world;
+
+    public FarmWorldReadyEvent(String farmName, World world) {
+        this.farmName = farmName;
+        this.world = world;
+    }
+
+    public String getFarmName() {
+        return farmName;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,150 @@
+package de.farmreset.cli;
+
+import de.farmreset.models.FarmRecord;
+import de.farmreset.storage.FarmIndex;
+import de.farmreset.storage.PendingResets;
+import de.farmreset.storage.TemplateStore;
+import de.farmreset.storage.WorldResetEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Offline-Reset für das Startskript, läuft ohne Bukkit auf dem Classpath:
+ *
+ *   java -jar plugins/FarmReset.jar [--server .] [--plugin-folder plugins/FarmReset] [--worlds .] [--threads N] [--list]
+ *   java -jar plugins/FarmReset.jar --snapshot <Welt> [--keep 3]
+ *
+ * Arbeitet die vom Plugin vorgemerkten Welten ab, bevor die Server-JVM startet,
+ * bzw. legt bei gestopptem Server eine Vorlage aus einer Welt an.
+ * Was hier fehlschlägt, bleibt vorgemerkt und wird vom Plugin in onLoad() nachgeholt.
+ */
+public final class FarmResetCli {
+
+    private FarmResetCli() {
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.util.logging.SimpleFormatter.format", "[FarmReset] %4$s: %5$s%6$s%n");
+        Logger logger = Logger.getLogger("FarmReset");
+
+        Path server = Paths.get(".");
+        Path pluginFolder = null;
+        Path worlds = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean listOnly = false;
+        String snapshot = null;
+        int keepGenerations = 3;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--server" -> server = Paths.get(args[++i]);
+                    case "--plugin-folder" -> pluginFolder = Paths.get(args[++i]);
+                    case "--worlds" -> worlds = Paths.get(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--list" -> listOnly = true;
+                    case "--snapshot" -> snapshot = args[++i];
+                    case "--keep" -> keepGenerations = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unbekannte Option: " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() != null ? e.getMessage() : "Fehlender Wert");
+            System.err.println("Verwendung: java -jar FarmReset.jar [--server <Ordner>] [--plugin-folder <Ordner>] "
+                + "[--worlds <Ordner>] [--threads <Anzahl>] [--list] [--snapshot <Welt> [--keep <Anzahl>]]");
+            System.exit(2);
+            return;
+        }
+        if (pluginFolder == null) {
+            pluginFolder = server.resolve("plugins").resolve("FarmReset");
+        }
+        if (worlds == null) {
+            worlds = server;
+        }
+
+        try {
+            if (snapshot != null) {
+                System.exit(snapshot(pluginFolder, worlds.resolve(snapshot), snapshot, keepGenerations, threads, logger));
+            }
+            System.exit(run(pluginFolder, worlds, threads, listOnly, logger));
+        } catch (IOException e) {
+            logger.severe("Offline-Reset fehlgeschlagen: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int run(Path pluginFolder, Path worlds, int threads, boolean listOnly, Logger logger) throws IOException {
+        Path pendingFile = pluginFolder.resolve(PendingResets.FILE_NAME);
+        PendingResets pending = PendingResets.load(pendingFile);
+        if (pending.isEmpty()) {
+            logger.info("Keine ausstehenden Farm-Resets.");
+            return 0;
+        }
+
+        Map<String, List<String>> farmsByWorld = getFarmsByWorld(pluginFolder, logger);
+        for (String worldName : pending.getWorlds()) {
+            List<String> farms = farmsByWorld.getOrDefault(worldName, List.of());
+            PendingResets.Action action = pending.getAction(worldName);
+            logger.info((action != null ? action.name() : "?") + " " + worldName + (farms.isEmpty() ? "" : " (Farmen: " + String.join(", ", farms) + ")"));
+        }
+        if (listOnly) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        TemplateStore templates = new TemplateStore(pluginFolder.resolve(TemplateStore.FOLDER_NAME), threads, logger);
+        Set<String> completed = new WorldResetEngine(worlds, templates, threads, logger).run(pending);
+        completed.forEach(pending::remove);
+        pending.save(pendingFile);
+
+        if (!pending.isEmpty()) {
+            logger.warning(pending.getWorlds().size() + " Welt(en) konnten nicht zurückgesetzt werden und bleiben vorgemerkt.");
+            return 1;
+        }
+        logger.info("Alle Farm-Resets abgeschlossen (" + (System.currentTimeMillis() - start) + " ms, " + threads + " Threads).");
+        return 0;
+    }
+
+    private static int snapshot(Path pluginFolder, Path worldFolder, String worldName, int keepGenerations,
+                                int threads, Logger logger) throws IOException {
+        if (!Files.isDirectory(worldFolder)) {
+            logger.severe("Welt-Ordner '" + worldFolder + "' nicht gefunden.");
+            return 1;
+        }
+        long start = System.currentTimeMillis();
+        TemplateStore templates = new TemplateStore(pluginFolder.resolve(TemplateStore.FOLDER_NAME), threads, logger);
+        TemplateStore.Result result = templates.snapshot(worldName, worldFolder);
+        int removed = templates.cleanup(worldName, keepGenerations);
+        logger.info("Vorlage '" + worldName + "' gespeichert: " + result.getFiles() + " Dateien ("
+            + (result.getBytes() / (1024 * 1024)) + " MB), davon " + result.getBlobsWritten() + " neu ("
+            + (result.getBytesWritten() / (1024 * 1024)) + " MB), " + removed + " alte Blobs entfernt ("
+            + (System.currentTimeMillis() - start) + " ms).");
+        return 0;
+    }
+
+    // Nur zur Anzeige, ohne gültigen Index werden die Farmnamen weggelassen
+    private static Map<String, List<String>> getFarmsByWorld(Path pluginFolder, Logger logger) {
+        Map<String, List<String>> farmsByWorld = new HashMap<>();
+        try {
+            List<FarmRecord> records = FarmIndex.read(pluginFolder.resolve("farms.idx"), pluginFolder.resolve("farms.yml"));
+            if (records == null) {
+                return farmsByWorld;
+            }
+            for (FarmRecord record : records) {
+                farmsByWorld.computeIfAbsent(record.getWorldName(), name -> new ArrayList<>()).add(record.getName());
+            }
+        } catch (IOException e) {
+            logger.warning("farms.idx konnte nicht gelesen werden: " + e.getMessage());
+        }
+        return farmsByWorld;
+    }
+}
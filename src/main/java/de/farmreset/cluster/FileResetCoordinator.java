@@ -0,0 +1,290 @@
+package de.farmreset.cluster;
+
+import de.farmreset.FarmReset;
+import de.farmreset.scheduler.FarmTask;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Koordination über ein gemeinsames Verzeichnis (NFS, gemountetes Volume oder
+ * einfach ein lokaler Ordner, wenn alle Server auf derselben Maschine laufen).
+ *
+ * Aufbau des Verzeichnisses:
+ *   reset.lock            - Dateisperre für Änderungen am Lease
+ *   reset.lease           - aktueller Lease-Inhaber und Ablaufzeit
+ *   servers/<id>.state    - Zustand und Heartbeat je Server
+ */
+public class FileResetCoordinator implements ResetCoordinator {
+
+    private final FarmReset plugin;
+    private final String serverId;
+    private final Path serversDir;
+    private final Path leaseFile;
+    private final Path lockFile;
+    private final long leaseMillis;
+    private final long memberTimeoutMillis;
+    private final int staggerMinutes;
+    private final int fixedSlot;
+    private volatile ResetState state = ResetState.IDLE;
+    private volatile long lastReset;
+    private FarmTask heartbeatTask;
+
+    public FileResetCoordinator(FarmReset plugin, String serverId, Path sharedDir, long leaseSeconds,
+                                long memberTimeoutSeconds, int staggerMinutes, int fixedSlot) {
+        this.plugin = plugin;
+        this.serverId = serverId;
+        this.serversDir = sharedDir.resolve("servers");
+        this.leaseFile = sharedDir.resolve("reset.lease");
+        this.lockFile = sharedDir.resolve("reset.lock");
+        this.leaseMillis = leaseSeconds * 1000L;
+        this.memberTimeoutMillis = memberTimeoutSeconds * 1000L;
+        this.staggerMinutes = staggerMinutes;
+        this.fixedSlot = fixedSlot;
+    }
+
+    @Override
+    public String getServerId() {
+        return serverId;
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(serversDir);
+            // Zustand vom letzten Lauf übernehmen (z.B. RESTARTING nach einem Reset)
+            ServerResetState previous = readState(serversDir.resolve(serverId + ".state"));
+            if (previous != null) {
+                state = previous.getState();
+                lastReset = previous.getLastReset();
+            }
+            writeOwnState();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Cluster-Verzeichnis konnte nicht initialisiert werden: " + e.getMessage());
+        }
+
+        // Heartbeat alle 20 Sekunden, verlängert auch einen gehaltenen Lease solange ein Reset läuft
+        heartbeatTask = plugin.getTaskScheduler().runAsyncTimer(() -> {
+            try {
+                writeOwnState();
+                if (state != ResetState.IDLE && holdsResetLease()) {
+                    withLock(() -> {
+                        writeLease(serverId, System.currentTimeMillis() + leaseMillis);
+                        return null;
+                    });
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Cluster-Heartbeat fehlgeschlagen: " + e.getMessage());
+            }
+        }, 400L, 400L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (heartbeatTask != null && !heartbeatTask.isCancelled()) {
+            heartbeatTask.cancel();
+        }
+        try {
+            writeOwnState();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Cluster-Zustand konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean tryAcquireResetLease() {
+        try {
+            return withLock(() -> {
+                long now = System.currentTimeMillis();
+                if (!canTakeLease(readProperties(leaseFile), serverId, now)) {
+                    return false;
+                }
+                writeLease(serverId, now + leaseMillis);
+                return true;
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("Reset-Lease konnte nicht angefordert werden: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseResetLease() {
+        try {
+            withLock(() -> {
+                Properties lease = readProperties(leaseFile);
+                if (lease != null && serverId.equals(lease.getProperty("owner"))) {
+                    Files.deleteIfExists(leaseFile);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("Reset-Lease konnte nicht freigegeben werden: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean holdsResetLease() {
+        try {
+            Properties lease = readProperties(leaseFile);
+            return lease != null
+                && serverId.equals(lease.getProperty("owner"))
+                && parseLong(lease.getProperty("expires")) > System.currentTimeMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int getStaggerOffsetMinutes() {
+        if (fixedSlot >= 0) {
+            return fixedSlot * staggerMinutes;
+        }
+
+        return getSlot(getClusterState().values(), serverId, System.currentTimeMillis(), memberTimeoutMillis) * staggerMinutes;
+    }
+
+    // Slot = Position in der sortierten Liste aller aktiven Server
+    static int getSlot(Collection<ServerResetState> cluster, String serverId, long now, long memberTimeoutMillis) {
+        List<String> members = new ArrayList<>();
+        for (ServerResetState member : cluster) {
+            if (now - member.getLastHeartbeat() <= memberTimeoutMillis) {
+                members.add(member.getServerId());
+            }
+        }
+        if (!members.contains(serverId)) {
+            members.add(serverId);
+        }
+        Collections.sort(members);
+        return members.indexOf(serverId);
+    }
+
+    // Frei ist der Lease, wenn es keinen gibt, er abgelaufen ist oder schon diesem Server gehört
+    static boolean canTakeLease(Properties lease, String serverId, long now) {
+        if (lease == null) {
+            return true;
+        }
+        String owner = lease.getProperty("owner", "");
+        long expires = parseLong(lease.getProperty("expires"));
+        return owner.equals(serverId) || expires <= now;
+    }
+
+    @Override
+    public void publishState(ResetState state) {
+        this.state = state;
+        if (state == ResetState.RESETTING) {
+            lastReset = System.currentTimeMillis();
+        }
+        try {
+            writeOwnState();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Cluster-Zustand konnte nicht veröffentlicht werden: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, ServerResetState> getClusterState() {
+        Map<String, ServerResetState> result = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(serversDir, "*.state")) {
+            for (Path file : stream) {
+                ServerResetState member = readState(file);
+                if (member != null) {
+                    result.put(member.getServerId(), member);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Cluster-Zustand konnte nicht gelesen werden: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void writeOwnState() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("server", serverId);
+        properties.setProperty("state", state.name());
+        properties.setProperty("heartbeat", Long.toString(System.currentTimeMillis()));
+        properties.setProperty("lastReset", Long.toString(lastReset));
+        writeProperties(serversDir.resolve(serverId + ".state"), properties);
+    }
+
+    private void writeLease(String owner, long expires) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("owner", owner);
+        properties.setProperty("expires", Long.toString(expires));
+        writeProperties(leaseFile, properties);
+    }
+
+    private ServerResetState readState(Path file) throws IOException {
+        Properties properties = readProperties(file);
+        if (properties == null || properties.getProperty("server") == null) {
+            return null;
+        }
+        return new ServerResetState(
+            properties.getProperty("server"),
+            ResetState.parse(properties.getProperty("state")),
+            parseLong(properties.getProperty("heartbeat")),
+            parseLong(properties.getProperty("lastReset"))
+        );
+    }
+
+    private Properties readProperties(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    // Schreibt zuerst in eine temporäre Datei, damit andere Server nie eine halbe Datei lesen
+    private void writeProperties(Path file, Properties properties) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + "." + serverId + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized <T> T withLock(LockedAction<T> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return action.run();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+}
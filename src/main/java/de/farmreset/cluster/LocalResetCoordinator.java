@@ -0,0 +1,65 @@
+package de.farmreset.cluster;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Standard für einzelne Server: kein Versatz, Lease ist immer verfügbar
+public class LocalResetCoordinator implements ResetCoordinator {
+
+    private final String serverId;
+    private volatile ResetState state = ResetState.IDLE;
+    private volatile long lastReset;
+    private volatile boolean leaseHeld;
+
+    public LocalResetCoordinator(String serverId) {
+        this.serverId = serverId;
+    }
+
+    @Override
+    public String getServerId() {
+        return serverId;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public boolean tryAcquireResetLease() {
+        leaseHeld = true;
+        return true;
+    }
+
+    @Override
+    public void releaseResetLease() {
+        leaseHeld = false;
+    }
+
+    @Override
+    public boolean holdsResetLease() {
+        return leaseHeld;
+    }
+
+    @Override
+    public int getStaggerOffsetMinutes() {
+        return 0;
+    }
+
+    @Override
+    public void publishState(ResetState state) {
+        this.state = state;
+        if (state == ResetState.RESETTING) {
+            lastReset = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public Map<String, ServerResetState> getClusterState() {
+        return Collections.singletonMap(serverId,
+            new ServerResetState(serverId, state, System.currentTimeMillis(), lastReset));
+    }
+}
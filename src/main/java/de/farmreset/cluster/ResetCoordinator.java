@@ -0,0 +1,30 @@
+package de.farmreset.cluster;
+
+import java.util.Map;
+
+/**
+ * Stimmt Resets zwischen mehreren Backend-Servern ab.
+ * Es darf immer nur ein Server gleichzeitig den Reset-Lease halten.
+ */
+public interface ResetCoordinator {
+
+    String getServerId();
+
+    void start();
+
+    void shutdown();
+
+    // Versucht den netzwerkweiten Reset-Lease zu bekommen (true = dieser Server darf resetten)
+    boolean tryAcquireResetLease();
+
+    void releaseResetLease();
+
+    boolean holdsResetLease();
+
+    // Versatz in Minuten zur konfigurierten Reset-Stunde, damit nicht alle Server gleichzeitig neustarten
+    int getStaggerOffsetMinutes();
+
+    void publishState(ResetState state);
+
+    Map<String, ServerResetState> getClusterState();
+}
@@ -0,0 +1,20 @@
+package de.farmreset.cluster;
+
+public enum ResetState {
+    IDLE,
+    WAITING,
+    RESETTING,
+    RESTARTING,
+    RECREATING;
+
+    public static ResetState parse(String value) {
+        if (value == null) {
+            return IDLE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return IDLE;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.farmreset.cluster;
+
+public class ServerResetState {
+
+    private final String serverId;
+    private final ResetState state;
+    private final long lastHeartbeat;
+    private final long lastReset;
+
+    public ServerResetState(String serverId, ResetState state, long lastHeartbeat, long lastReset) {
+        this.serverId = serverId;
+        this.state = state;
+        this.lastHeartbeat = lastHeartbeat;
+        this.lastReset = lastReset;
+    }
+
+    public String getServerId() {
+        return serverId;
+    }
+
+    public ResetState getState() {
+        return state;
+    }
+
+    public long getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    public long getLastReset() {
+        return lastReset;
+    }
+}
@@ -2,21 +2,31 @@ package de.farmreset.commands;
 
 import de.farmreset.FarmReset;
 import de.farmreset.manager.DataManager;
+import de.farmreset.manager.ResetManager;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
-public class FarmCommand implements CommandExecutor {
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class FarmCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = List.of("create", "info", "pos1", "pos2", "reset", "template");
 
     private final FarmReset plugin;
     private final DataManager dataManager;
+    private final FarmInfoRenderer infoRenderer;
 
     public FarmCommand(FarmReset plugin) {
         this.plugin = plugin;
         this.dataManager = plugin.getDataManager();
+        this.infoRenderer = new FarmInfoRenderer(plugin);
     }
 
     @Override
@@ -33,6 +43,11 @@ public class FarmCommand implements CommandExecutor {
             return true;
         }
 
+        if (!dataManager.isLoaded()) {
+            player.sendMessage("§cDie Farmen werden noch geladen, bitte versuche es gleich erneut!");
+            return true;
+        }
+
         switch (args[0].toLowerCase()) {
             case "pos1":
                 handlePos1(player);
@@ -48,10 +63,21 @@ public class FarmCommand implements CommandExecutor {
                 handleCreate(player, args[1]);
                 break;
             case "reset":
+                if (args.length >= 2 && args[1].equalsIgnoreCase("--dry-run")) {
+                    handleDryRun(player, args.length >= 3 ? args[2] : null);
+                    return true;
+                }
                 handleReset(player);
                 break;
             case "info":
-                handleInfo(player);
+                handleInfo(player, args.length >= 2 ? args[1] : null);
+                break;
+            case "template":
+                if (args.length < 2) {
+                    player.sendMessage("§cVerwendung: /farm template <Name>");
+                    return true;
+                }
+                handleTemplate(player, args[1]);
                 break;
             default:
                 sendHelp(player);
@@ -67,7 +93,10 @@ public class FarmCommand implements CommandExecutor {
         player.sendMessage("§e/farm pos2 §7- Setze Position 2");
         player.sendMessage("§e/farm create <Name> §7- Erstelle Farm mit Name");
         player.sendMessage("§e/farm reset §7- Setze Farm-Welt zurück (30 Sekunden Countdown)");
-        player.sendMessage("§e/farm info §7- Zeige Farm-Informationen");
+        player.sendMessage("§e/farm reset --dry-run [Name] §7- Schätze die Dauer eines Resets");
+        player.sendMessage("§e/farm info [Seite] §7- Zeige Farm-Informationen");
+        player.sendMessage("§e/farm info <Name> §7- Zeige Details einer Farm");
+        player.sendMessage("§e/farm template <Name> §7- Speichere die Farm-Welt als Vorlage für Resets");
     }
 
     private void handlePos1(Player player) {
@@ -108,19 +137,30 @@ public class FarmCommand implements CommandExecutor {
         player.sendMessage("§7Spawn-Position: " + formatLocation(spawnLocation));
     }
 
-    private void handleInfo(Player player) {
-        var farms = dataManager.getAllFarms();
-        if (farms.isEmpty()) {
-            player.sendMessage("§cKeine Farmen gefunden!");
+    private void handleInfo(Player player, String arg) {
+        if (arg == null) {
+            player.sendMessage(infoRenderer.renderPage(1));
+            return;
+        }
+
+        // Farmname hat Vorrang, damit auch Farmen wie "2024" angezeigt werden können; sonst Zahl = Seite
+        de.farmreset.models.FarmData farm = dataManager.getFarm(arg);
+        if (farm != null) {
+            player.sendMessage(infoRenderer.renderDetails(farm));
             return;
         }
 
-        player.sendMessage("§6=== Farm-Informationen ===");
-        farms.forEach((name, farm) -> {
-            player.sendMessage("§e" + name + ":");
-            player.sendMessage("  §7Spawn: " + formatLocation(farm.getSpawnLocation()));
-            player.sendMessage("  §7Welt: " + farm.getSpawnLocation().getWorld().getName());
-        });
+        try {
+            int page = Integer.parseInt(arg);
+            if (page < 1 || page > Math.max(1, infoRenderer.getPageCount())) {
+                player.sendMessage("§cUngültige Seite! Verfügbar: 1-" + Math.max(1, infoRenderer.getPageCount()));
+                return;
+            }
+            player.sendMessage(infoRenderer.renderPage(page));
+            return;
+        } catch (NumberFormatException ignored) {
+            player.sendMessage("§cFarm '§e" + arg + "§c' nicht gefunden!");
+        }
     }
 
     private void handleReset(Player player) {
@@ -144,9 +184,121 @@ public class FarmCommand implements CommandExecutor {
             return;
         }
         
+        if (!plugin.getResetManager().canReset(farmInWorld)) {
+            player.sendMessage("§c" + ResetManager.FOLIA_RESET_UNSUPPORTED);
+            return;
+        }
+        
         // Starte Reset mit Countdown
-        plugin.getResetManager().startManualReset(farmInWorld);
-        player.sendMessage("§aFarm Reset gestartet! Die Welt wird in 30 Sekunden zurückgesetzt.");
+        plugin.getResetManager().startManualReset(farmInWorld).thenAccept(started ->
+            plugin.getTaskScheduler().runForEntity(player, () -> {
+                if (!started) {
+                    player.sendMessage("§cFarm Reset konnte nicht gestartet werden! Es läuft bereits ein Reset im Netzwerk.");
+                    return;
+                }
+                player.sendMessage("§aFarm Reset gestartet! Die Welt wird in 30 Sekunden zurückgesetzt.");
+            }));
+    }
+
+    private void handleDryRun(Player player, String name) {
+        de.farmreset.models.FarmData farm = name != null ? dataManager.getFarm(name) : findFarmInWorld(player.getWorld());
+        if (farm == null) {
+            player.sendMessage(name != null ? "§cFarm '§e" + name + "§c' nicht gefunden!" : "§cKeine Farm in dieser Welt gefunden!");
+            return;
+        }
+
+        player.sendMessage("§7Schätze Reset für Farm '§e" + farm.getName() + "§7'...");
+        plugin.getResetEstimator().estimate(farm, plugin.getResetManager().getStageIds(), plugin.getResetManager().isDeferredReset()).whenComplete((estimate, error) ->
+            plugin.getTaskScheduler().runForEntity(player, () -> {
+                if (error != null) {
+                    player.sendMessage("§cSchätzung fehlgeschlagen: " + error.getMessage());
+                    return;
+                }
+                player.sendMessage("§6=== Reset-Schätzung für '" + estimate.getFarmName() + "' (Probelauf) ===");
+                player.sendMessage("§7Welt: §f" + estimate.getWorldName() + " §7(" + (estimate.getWorldBytes() / (1024 * 1024)) + " MB)");
+                player.sendMessage("§7Dateien: §f" + estimate.getRegionFiles() + " Region, " + estimate.getEntityFiles()
+                    + " Entities, " + estimate.getPoiFiles() + " POI");
+                player.sendMessage("§7Betroffene Spieler: §f" + estimate.getPlayersInWorld() + " in der Welt, "
+                    + estimate.getPlayersOnline() + " durch den Neustart");
+                for (java.util.Map.Entry<String, Long> stage : estimate.getStageMillis().entrySet()) {
+                    player.sendMessage("§7- " + stage.getKey() + ": §f" + formatDuration(stage.getValue()));
+                }
+                player.sendMessage("§7- Neustart und Neuerstellung: §f" + formatDuration(estimate.getRestartMillis()));
+                player.sendMessage("§7Gesamt: §e" + (estimate.isComplete() ? formatDuration(estimate.getTotalMillis())
+                    : "unbekannt (es fehlen Messwerte früherer Resets)"));
+            }));
+    }
+
+    private de.farmreset.models.FarmData findFarmInWorld(World world) {
+        for (de.farmreset.models.FarmData farm : dataManager.getAllFarms().values()) {
+            if (farm.getSpawnLocation().getWorld() != null && farm.getSpawnLocation().getWorld().equals(world)) {
+                return farm;
+            }
+        }
+        return null;
+    }
+
+    private String formatDuration(long millis) {
+        if (millis < 0) {
+            return "unbekannt (noch kein Reset gemessen)";
+        }
+        if (millis < 1000) {
+            return millis + " ms";
+        }
+        long seconds = millis / 1000;
+        return seconds >= 60 ? (seconds / 60) + " min " + (seconds % 60) + " s" : seconds + " s";
+    }
+
+    private void handleTemplate(Player player, String name) {
+        if (!player.hasPermission("farmreset.admin")) {
+            player.sendMessage("§cDu hast keine Berechtigung für diesen Befehl!");
+            return;
+        }
+
+        de.farmreset.models.FarmData farm = dataManager.getFarm(name);
+        if (farm == null) {
+            player.sendMessage("§cFarm '§e" + name + "§c' nicht gefunden!");
+            return;
+        }
+
+        player.sendMessage("§7Speichere Vorlage für Farm '§e" + farm.getName() + "§7'...");
+        plugin.getResetManager().saveTemplate(farm).whenComplete((result, error) ->
+            plugin.getTaskScheduler().runForEntity(player, () -> {
+                if (error != null) {
+                    player.sendMessage("§cVorlage konnte nicht gespeichert werden: " + error.getMessage());
+                    return;
+                }
+                player.sendMessage("§aVorlage gespeichert: §7" + result.getFiles() + " Dateien, davon "
+                    + result.getBlobsWritten() + " neu (" + (result.getBytesWritten() / (1024 * 1024)) + " MB)");
+            }));
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            List<String> matches = new ArrayList<>();
+            String prefix = args[0].toLowerCase();
+            for (String subcommand : SUBCOMMANDS) {
+                if (subcommand.startsWith(prefix)) {
+                    matches.add(subcommand);
+                }
+            }
+            return matches;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("reset")) {
+            return "--dry-run".startsWith(args[1].toLowerCase()) ? List.of("--dry-run") : Collections.emptyList();
+        }
+
+        if (args.length == 3 && args[0].equalsIgnoreCase("reset") && args[1].equalsIgnoreCase("--dry-run")) {
+            return dataManager.getFarmNamesStartingWith(args[2]);
+        }
+
+        if (args.length == 2 && (args[0].equalsIgnoreCase("info") || args[0].equalsIgnoreCase("template"))) {
+            return dataManager.getFarmNamesStartingWith(args[1]);
+        }
+
+        return Collections.emptyList();
     }
 
     private String formatLocation(Location loc) {
@@ -0,0 +1,162 @@
+package de.farmreset.commands;
+
+import de.farmreset.FarmReset;
+import de.farmreset.manager.DataManager;
+import de.farmreset.models.FarmData;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Baut die Ausgabe von /farm info einmal auf und hält sie vor, bis sich die Farmen ändern
+public class FarmInfoRenderer {
+
+    public static final int PAGE_SIZE = 8;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm", Locale.GERMAN);
+
+    private final FarmReset plugin;
+    private final DataManager dataManager;
+    private List<Component> cachedPages = new ArrayList<>();
+    private int cachedVersion = -1;
+
+    public FarmInfoRenderer(FarmReset plugin) {
+        this.plugin = plugin;
+        this.dataManager = plugin.getDataManager();
+    }
+
+    public int getPageCount() {
+        return getPages().size();
+    }
+
+    // Seiten beginnen bei 1
+    public Component renderPage(int page) {
+        List<Component> pages = getPages();
+        if (pages.isEmpty()) {
+            return Component.text("Keine Farmen gefunden!", NamedTextColor.RED);
+        }
+        int index = Math.max(1, Math.min(page, pages.size())) - 1;
+        return pages.get(index);
+    }
+
+    // Detailansicht wird nicht gecacht, da sich der Reset-Status ständig ändern kann
+    public Component renderDetails(FarmData farm) {
+        Location spawn = farm.getSpawnLocation();
+        String worldName = spawn.getWorld() != null ? spawn.getWorld().getName() : "?";
+
+        return Component.text()
+            .append(Component.text("=== Farm '" + farm.getName() + "' ===", NamedTextColor.GOLD))
+            .append(Component.newline())
+            .append(label("Welt: ")).append(Component.text(worldName, NamedTextColor.WHITE))
+            .append(Component.newline())
+            .append(label("Spawn: ")).append(Component.text(formatLocation(spawn), NamedTextColor.WHITE))
+            .append(Component.newline())
+            .append(label("Bereich: ")).append(Component.text(
+                "(" + farm.getMinBlockX() + ", " + farm.getMinBlockY() + ", " + farm.getMinBlockZ() + ") - ("
+                    + farm.getMaxBlockX() + ", " + farm.getMaxBlockY() + ", " + farm.getMaxBlockZ() + ")",
+                NamedTextColor.WHITE))
+            .append(Component.newline())
+            .append(label("Größe: ")).append(Component.text(
+                farm.getSizeX() + " x " + farm.getSizeY() + " x " + farm.getSizeZ()
+                    + " (" + farm.getVolume() + " Blöcke)", NamedTextColor.WHITE))
+            .append(Component.newline())
+            .append(label("Status: ")).append(renderStatus(farm, worldName))
+            .append(Component.newline())
+            .append(label("Nächster Reset: ")).append(Component.text(
+                plugin.getBossbarManager().getNextResetDateTime().format(DATE_FORMATTER) + " Uhr", NamedTextColor.WHITE))
+            .build();
+    }
+
+    private Component renderStatus(FarmData farm, String worldName) {
+        FarmData manualReset = plugin.getResetManager().getCurrentManualReset();
+        if (manualReset != null && manualReset.getName().equals(farm.getName())) {
+            return Component.text("Manueller Reset läuft", NamedTextColor.RED);
+        }
+        if (plugin.getResetManager().isMarkedForSpawnReset(farm.getName())) {
+            return Component.text("Wird neu erstellt", NamedTextColor.YELLOW);
+        }
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            return Component.text("Welt nicht geladen", NamedTextColor.RED);
+        }
+        return Component.text("Aktiv (" + world.getPlayers().size() + " Spieler)", NamedTextColor.GREEN);
+    }
+
+    private List<Component> getPages() {
+        if (cachedVersion != dataManager.getVersion()) {
+            cachedPages = buildPages();
+            cachedVersion = dataManager.getVersion();
+        }
+        return cachedPages;
+    }
+
+    private List<Component> buildPages() {
+        List<String> names = dataManager.getSortedFarmNames();
+        List<Component> pages = new ArrayList<>();
+        int pageCount = (names.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+
+        for (int page = 0; page < pageCount; page++) {
+            TextComponent.Builder builder = Component.text()
+                .append(Component.text("=== Farm-Informationen (Seite " + (page + 1) + "/" + pageCount + ") ===", NamedTextColor.GOLD));
+
+            int end = Math.min(names.size(), (page + 1) * PAGE_SIZE);
+            for (int i = page * PAGE_SIZE; i < end; i++) {
+                FarmData farm = dataManager.getFarm(names.get(i));
+                if (farm != null) {
+                    builder.append(Component.newline()).append(renderLine(farm));
+                }
+            }
+
+            builder.append(Component.newline()).append(renderNavigation(page + 1, pageCount));
+            pages.add(builder.build());
+        }
+
+        return pages;
+    }
+
+    private Component renderLine(FarmData farm) {
+        Location spawn = farm.getSpawnLocation();
+        String worldName = spawn.getWorld() != null ? spawn.getWorld().getName() : "?";
+
+        return Component.text()
+            .append(Component.text(farm.getName(), NamedTextColor.YELLOW))
+            .append(Component.text(" - " + worldName + ", " + farm.getSizeX() + "x" + farm.getSizeZ(), NamedTextColor.GRAY))
+            .hoverEvent(HoverEvent.showText(Component.text("Spawn: " + formatLocation(spawn) + "\nKlicken für Details", NamedTextColor.GRAY)))
+            .clickEvent(ClickEvent.runCommand("/farm info " + farm.getName()))
+            .build();
+    }
+
+    private Component renderNavigation(int page, int pageCount) {
+        TextComponent.Builder builder = Component.text();
+        if (page > 1) {
+            builder.append(Component.text("« Zurück", NamedTextColor.AQUA)
+                .clickEvent(ClickEvent.runCommand("/farm info " + (page - 1))));
+        } else {
+            builder.append(Component.text("« Zurück", NamedTextColor.DARK_GRAY));
+        }
+        builder.append(Component.text(" | ", NamedTextColor.GRAY));
+        if (page < pageCount) {
+            builder.append(Component.text("Weiter »", NamedTextColor.AQUA)
+                .clickEvent(ClickEvent.runCommand("/farm info " + (page + 1))));
+        } else {
+            builder.append(Component.text("Weiter »", NamedTextColor.DARK_GRAY));
+        }
+        return builder.build();
+    }
+
+    private Component label(String text) {
+        return Component.text(text, NamedTextColor.GRAY);
+    }
+
+    private String formatLocation(Location loc) {
+        return String.format("X: %.1f, Y: %.1f, Z: %.1f", loc.getX(), loc.getY(), loc.getZ());
+    }
+}
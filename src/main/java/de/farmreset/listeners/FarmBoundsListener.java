@@ -0,0 +1,53 @@
+package de.farmreset.listeners;
+
+import de.farmreset.FarmReset;
+import de.farmreset.models.FarmData;
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.List;
+
+public class FarmBoundsListener implements Listener {
+
+    private final FarmReset plugin;
+
+    public FarmBoundsListener(FarmReset plugin) {
+        this.plugin = plugin;
+    }
+
+    // Teleports (Befehle, Enderperlen, andere Plugins) ignorieren die WorldBorder teilweise
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Location to = event.getTo();
+        if (to == null || to.getWorld() == null) {
+            return;
+        }
+
+        // Farm-Welten, die nach einem Reset noch erstellt werden, sind gesperrt
+        if (plugin.getResetManager().getRecreationQueue().isClosed(to.getWorld().getName())) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage("§cDiese Farm wird gerade neu erstellt, bitte warte einen Moment!");
+            return;
+        }
+
+        if (plugin.getBorderManager().getMaxGenerationRadius() <= 0) {
+            return;
+        }
+
+        // Liegen mehrere Farmen in der Welt, reicht es, wenn das Ziel im Bereich einer davon liegt
+        List<FarmData> farms = plugin.getDataManager().getFarmsInWorld(to.getWorld().getName());
+        if (farms.isEmpty()) {
+            return;
+        }
+        for (FarmData farm : farms) {
+            if (plugin.getBorderManager().isWithinGenerationLimit(farm, to)) {
+                return;
+            }
+        }
+        event.setCancelled(true);
+        event.getPlayer().sendMessage("§cDieses Ziel liegt außerhalb des Farm-Bereichs!");
+    }
+}
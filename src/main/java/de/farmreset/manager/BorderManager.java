@@ -0,0 +1,64 @@
+package de.farmreset.manager;
+
+import de.farmreset.FarmReset;
+import de.farmreset.models.FarmData;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+public class BorderManager {
+
+    private final FarmReset plugin;
+
+    public BorderManager(FarmReset plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isBorderEnabled() {
+        return plugin.getConfig().getBoolean("worldBorder.enabled", false) || getMaxGenerationRadius() > 0;
+    }
+
+    // 0 = kein hartes Limit
+    public int getMaxGenerationRadius() {
+        return Math.max(0, plugin.getConfig().getInt("worldBorder.maxGenerationRadius", 0));
+    }
+
+    // Setzt die WorldBorder auf den Farm-Bereich plus Rand, höchstens aber auf das Generierungs-Limit
+    public void applyBorder(FarmData farm, World world) {
+        if (!isBorderEnabled()) {
+            return;
+        }
+
+        int padding = Math.max(0, plugin.getConfig().getInt("worldBorder.padding", 16));
+        double size = Math.max(farm.getSizeX(), farm.getSizeZ()) + 2.0 * padding;
+        int maxRadius = getMaxGenerationRadius();
+        if (maxRadius > 0) {
+            size = Math.min(size, 2.0 * maxRadius);
+        }
+
+        WorldBorder border = world.getWorldBorder();
+        border.setCenter(getCenterX(farm), getCenterZ(farm));
+        border.setSize(size);
+        border.setWarningDistance(plugin.getConfig().getInt("worldBorder.warningDistance", 8));
+
+        plugin.getLogger().info("WorldBorder für Farm '" + farm.getName() + "' gesetzt: "
+            + String.format("Mitte X: %.1f, Z: %.1f, Größe: %.0f", getCenterX(farm), getCenterZ(farm), size));
+    }
+
+    public boolean isWithinGenerationLimit(FarmData farm, Location location) {
+        int maxRadius = getMaxGenerationRadius();
+        if (maxRadius <= 0) {
+            return true;
+        }
+        return Math.abs(location.getX() - getCenterX(farm)) <= maxRadius
+            && Math.abs(location.getZ() - getCenterZ(farm)) <= maxRadius;
+    }
+
+    private double getCenterX(FarmData farm) {
+        return (farm.getMinBlockX() + farm.getMaxBlockX() + 1) / 2.0;
+    }
+
+    private double getCenterZ(FarmData farm) {
+        return (farm.getMinBlockZ() + farm.getMaxBlockZ() + 1) / 2.0;
+    }
+}
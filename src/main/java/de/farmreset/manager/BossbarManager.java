@@ -1,11 +1,11 @@
 package de.farmreset.manager;
 
 import de.farmreset.FarmReset;
+import de.farmreset.scheduler.FarmTask;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -15,9 +15,10 @@ public class BossbarManager {
 
     private final FarmReset plugin;
     private BossBar bossBar;
-    private BukkitTask task;
+    private FarmTask task;
     private static final ZoneId TIMEZONE = ZoneId.of("Europe/Berlin");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss", Locale.GERMAN);
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("HH:mm", Locale.GERMAN);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy", Locale.GERMAN);
 
     public BossbarManager(FarmReset plugin) {
@@ -39,7 +40,7 @@ public class BossbarManager {
             task.cancel();
         }
 
-        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        task = plugin.getTaskScheduler().runGlobalTimer(() -> {
             updateBossbar();
         }, 0L, 20L); // Jede Sekunde aktualisieren
     }
@@ -75,8 +76,7 @@ public class BossbarManager {
         String timeString = String.format("%d Tage, %02d:%02d:%02d", days, hours, minutes, seconds);
         String dateString = nextReset.format(DATE_FORMATTER);
         
-        int resetHour = plugin.getConfig().getInt("resetHour", 12);
-        String hourString = String.format("%02d:00", resetHour);
+        String hourString = nextReset.format(HOUR_FORMATTER);
         
         Component text = Component.text("§6Farm Reset: §e" + timeString + " §7(" + dateString + " um " + hourString + " Uhr)");
         
@@ -90,6 +90,14 @@ public class BossbarManager {
     }
 
     private ZonedDateTime getNextResetDate(ZonedDateTime now) {
+        // ResetManager kennt Cluster-Versatz und die adaptiv gewählte Stunde
+        if (plugin.getResetManager() != null && plugin.getConfig().getLong("lastReset", 0) != 0) {
+            return plugin.getResetManager().getNextResetDateTime(now);
+        }
+        return getBaseResetDate(now);
+    }
+
+    private ZonedDateTime getBaseResetDate(ZonedDateTime now) {
         // Lese Config-Werte
         int resetHour = plugin.getConfig().getInt("resetHour", 12);
         int intervalDays = plugin.getConfig().getInt("resetIntervalDays", 30);
@@ -2,29 +2,52 @@ package de.farmreset.manager;
 
 import de.farmreset.FarmReset;
 import de.farmreset.models.FarmData;
+import de.farmreset.models.FarmRecord;
+import de.farmreset.storage.FarmIndex;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class DataManager {
 
     private final FarmReset plugin;
     private File dataFile;
-    private FileConfiguration dataConfig;
-    private final Map<String, FarmData> farms = new HashMap<>();
+    private File indexFile;
+    // Registry wird beim Laden komplett ersetzt statt verändert, damit Leser nie einen halben Stand sehen
+    private volatile Map<String, FarmData> farms = new HashMap<>();
+    // Farmen je Welt, wird zusammen mit farms ersetzt (z.B. für Teleport-Prüfungen)
+    private volatile Map<String, List<FarmData>> farmsByWorld = new HashMap<>();
+    // Farmen, deren Welt (noch) nicht geladen ist - bleiben erhalten und werden mitgespeichert
+    private volatile Map<String, FarmRecord> unresolvedFarms = new HashMap<>();
+    // Vor dem Ende des Ladens gespeicherte Farmen, werden in publish() übernommen statt überschrieben
+    private final Map<String, FarmData> pendingFarms = new HashMap<>();
     private final Map<UUID, Location> tempPos1 = new HashMap<>();
     private final Map<UUID, Location> tempPos2 = new HashMap<>();
+    // Groß-/Kleinschreibung spielt für die Sortierung keine Rolle, "Mine" und "mine" bleiben aber getrennte Farmen
+    private static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    // Sortierter Index der Farmnamen für Präfix-Suche bei der Tab-Vervollständigung
+    private volatile NavigableSet<String> farmNameIndex = createNameIndex();
+    private volatile boolean loaded;
+    private int version;
 
     public DataManager(FarmReset plugin) {
         this.plugin = plugin;
         setupDataFile();
-        loadData();
     }
 
     private void setupDataFile() {
@@ -33,6 +56,7 @@ public class DataManager {
         }
 
         dataFile = new File(plugin.getDataFolder(), "farms.yml");
+        indexFile = new File(plugin.getDataFolder(), "farms.idx");
         if (!dataFile.exists()) {
             try {
                 dataFile.createNewFile();
@@ -40,81 +64,174 @@ public class DataManager {
                 plugin.getLogger().severe("Konnte farms.yml nicht erstellen: " + e.getMessage());
             }
         }
+    }
+
+    // Liest die Farmen asynchron und veröffentlicht sie danach auf dem Main-Thread
+    public CompletableFuture<Void> loadDataAsync() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        long start = System.currentTimeMillis();
+
+        plugin.getTaskScheduler().runAsync(() -> {
+            List<FarmRecord> records;
+            try {
+                records = readRecords();
+            } catch (Exception e) {
+                // Nicht als geladen markieren, sonst würde saveData() farms.yml mit einer leeren Liste überschreiben
+                plugin.getLogger().severe("Konnte Farmen nicht laden, farms.yml wird nicht verändert: " + e.getMessage());
+                result.completeExceptionally(e);
+                return;
+            }
 
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
+            // Welten dürfen nur auf dem Main-Thread abgefragt werden
+            plugin.getTaskScheduler().runGlobal(() -> {
+                publish(records);
+                plugin.getLogger().info("Es wurden " + farms.size() + " Farm(en) geladen ("
+                    + (System.currentTimeMillis() - start) + " ms).");
+                result.complete(null);
+            });
+        });
+
+        return result;
     }
 
-    public void loadData() {
-        if (dataConfig.getConfigurationSection("farms") == null) {
-            return;
+    private List<FarmRecord> readRecords() throws IOException, InvalidConfigurationException {
+        try {
+            List<FarmRecord> records = FarmIndex.read(indexFile.toPath(), dataFile.toPath());
+            if (records != null) {
+                return records;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Farm-Index konnte nicht gelesen werden: " + e.getMessage());
         }
 
-        for (String name : dataConfig.getConfigurationSection("farms").getKeys(false)) {
-            String path = "farms." + name;
-            
-            String worldName = dataConfig.getString(path + ".spawn.world");
-            double spawnX = dataConfig.getDouble(path + ".spawn.x");
-            double spawnY = dataConfig.getDouble(path + ".spawn.y");
-            double spawnZ = dataConfig.getDouble(path + ".spawn.z");
-            float yaw = (float) dataConfig.getDouble(path + ".spawn.yaw", 0);
-            float pitch = (float) dataConfig.getDouble(path + ".spawn.pitch", 0);
-
-            double pos1X = dataConfig.getDouble(path + ".pos1.x");
-            double pos1Y = dataConfig.getDouble(path + ".pos1.y");
-            double pos1Z = dataConfig.getDouble(path + ".pos1.z");
-            
-            double pos2X = dataConfig.getDouble(path + ".pos2.x");
-            double pos2Y = dataConfig.getDouble(path + ".pos2.y");
-            double pos2Z = dataConfig.getDouble(path + ".pos2.z");
-
-            org.bukkit.World world = plugin.getServer().getWorld(worldName);
+        // Index fehlt, ist beschädigt oder farms.yml wurde geändert: YAML lesen und Index neu erzeugen.
+        // Anders als loadConfiguration() wirft load() bei einer kaputten Datei, statt leer zu laden.
+        YamlConfiguration dataConfig = new YamlConfiguration();
+        dataConfig.load(dataFile);
+        List<FarmRecord> records = parseYaml(dataConfig);
+        try {
+            FarmIndex.write(indexFile.toPath(), dataFile.toPath(), records);
+            plugin.getLogger().info("Farm-Index aus farms.yml neu erzeugt.");
+        } catch (IOException e) {
+            plugin.getLogger().warning("Farm-Index konnte nicht geschrieben werden: " + e.getMessage());
+        }
+        return records;
+    }
+
+    private List<FarmRecord> parseYaml(FileConfiguration dataConfig) {
+        List<FarmRecord> records = new ArrayList<>();
+        ConfigurationSection section = dataConfig.getConfigurationSection("farms");
+        if (section == null) {
+            return records;
+        }
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection farm = section.getConfigurationSection(name);
+            if (farm == null) {
+                continue;
+            }
+            records.add(new FarmRecord(name, farm.getString("spawn.world"),
+                farm.getDouble("spawn.x"), farm.getDouble("spawn.y"), farm.getDouble("spawn.z"),
+                (float) farm.getDouble("spawn.yaw", 0), (float) farm.getDouble("spawn.pitch", 0),
+                farm.getDouble("pos1.x"), farm.getDouble("pos1.y"), farm.getDouble("pos1.z"),
+                farm.getDouble("pos2.x"), farm.getDouble("pos2.y"), farm.getDouble("pos2.z")));
+        }
+        return records;
+    }
+
+    private void publish(List<FarmRecord> records) {
+        Map<String, FarmData> loadedFarms = new HashMap<>();
+        Map<String, FarmRecord> unresolved = new HashMap<>();
+        NavigableSet<String> nameIndex = createNameIndex();
+
+        for (FarmRecord record : records) {
+            World world = record.getWorldName() != null ? plugin.getServer().getWorld(record.getWorldName()) : null;
             if (world == null) {
-                plugin.getLogger().warning("Welt '" + worldName + "' für Farm '" + name + "' nicht gefunden!");
+                plugin.getLogger().warning("Welt '" + record.getWorldName() + "' für Farm '" + record.getName() + "' nicht gefunden!");
+                unresolved.put(record.getName(), record);
                 continue;
             }
+            loadedFarms.put(record.getName(), toFarmData(record, world));
+            nameIndex.add(record.getName());
+        }
+
+        boolean hadPending = !pendingFarms.isEmpty();
+        for (FarmData farm : pendingFarms.values()) {
+            loadedFarms.put(farm.getName(), farm);
+            unresolved.remove(farm.getName());
+            nameIndex.add(farm.getName());
+        }
+        pendingFarms.clear();
 
-            Location spawnLocation = new Location(world, spawnX, spawnY, spawnZ, yaw, pitch);
-            Location pos1 = new Location(world, pos1X, pos1Y, pos1Z);
-            Location pos2 = new Location(world, pos2X, pos2Y, pos2Z);
+        setFarms(loadedFarms);
+        unresolvedFarms = unresolved;
+        farmNameIndex = nameIndex;
+        version++;
+        loaded = true;
 
-            farms.put(name, new FarmData(name, spawnLocation, pos1, pos2));
+        if (hadPending) {
+            saveData();
         }
+    }
 
-        plugin.getLogger().info("Es wurden " + farms.size() + " Farm(en) geladen.");
+    public boolean isLoaded() {
+        return loaded;
     }
 
     public void saveData() {
-        dataConfig.set("farms", null);
+        // Vor dem ersten Laden würde sonst eine leere farms.yml geschrieben
+        if (!loaded) {
+            return;
+        }
 
+        List<FarmRecord> records = new ArrayList<>(unresolvedFarms.values());
         for (FarmData farm : farms.values()) {
-            String path = "farms." + farm.getName();
-            
-            Location spawn = farm.getSpawnLocation();
-            dataConfig.set(path + ".spawn.world", spawn.getWorld().getName());
-            dataConfig.set(path + ".spawn.x", spawn.getX());
-            dataConfig.set(path + ".spawn.y", spawn.getY());
-            dataConfig.set(path + ".spawn.z", spawn.getZ());
-            dataConfig.set(path + ".spawn.yaw", spawn.getYaw());
-            dataConfig.set(path + ".spawn.pitch", spawn.getPitch());
-
-            Location pos1 = farm.getPos1();
-            dataConfig.set(path + ".pos1.x", pos1.getX());
-            dataConfig.set(path + ".pos1.y", pos1.getY());
-            dataConfig.set(path + ".pos1.z", pos1.getZ());
-
-            Location pos2 = farm.getPos2();
-            dataConfig.set(path + ".pos2.x", pos2.getX());
-            dataConfig.set(path + ".pos2.y", pos2.getY());
-            dataConfig.set(path + ".pos2.z", pos2.getZ());
+            records.add(toRecord(farm));
+        }
+
+        YamlConfiguration dataConfig = new YamlConfiguration();
+        for (FarmRecord record : records) {
+            String path = "farms." + record.getName();
+            dataConfig.set(path + ".spawn.world", record.getWorldName());
+            dataConfig.set(path + ".spawn.x", record.getSpawnX());
+            dataConfig.set(path + ".spawn.y", record.getSpawnY());
+            dataConfig.set(path + ".spawn.z", record.getSpawnZ());
+            dataConfig.set(path + ".spawn.yaw", record.getYaw());
+            dataConfig.set(path + ".spawn.pitch", record.getPitch());
+
+            dataConfig.set(path + ".pos1.x", record.getPos1X());
+            dataConfig.set(path + ".pos1.y", record.getPos1Y());
+            dataConfig.set(path + ".pos1.z", record.getPos1Z());
+
+            dataConfig.set(path + ".pos2.x", record.getPos2X());
+            dataConfig.set(path + ".pos2.y", record.getPos2Y());
+            dataConfig.set(path + ".pos2.z", record.getPos2Z());
         }
 
         try {
             dataConfig.save(dataFile);
+            FarmIndex.write(indexFile.toPath(), dataFile.toPath(), records);
         } catch (IOException e) {
             plugin.getLogger().severe("Konnte farms.yml nicht speichern: " + e.getMessage());
         }
     }
 
+    private FarmData toFarmData(FarmRecord record, World world) {
+        return new FarmData(record.getName(),
+            new Location(world, record.getSpawnX(), record.getSpawnY(), record.getSpawnZ(), record.getYaw(), record.getPitch()),
+            new Location(world, record.getPos1X(), record.getPos1Y(), record.getPos1Z()),
+            new Location(world, record.getPos2X(), record.getPos2Y(), record.getPos2Z()));
+    }
+
+    private FarmRecord toRecord(FarmData farm) {
+        Location spawn = farm.getSpawnLocation();
+        Location pos1 = farm.getPos1();
+        Location pos2 = farm.getPos2();
+        return new FarmRecord(farm.getName(), spawn.getWorld().getName(),
+            spawn.getX(), spawn.getY(), spawn.getZ(), spawn.getYaw(), spawn.getPitch(),
+            pos1.getX(), pos1.getY(), pos1.getZ(), pos2.getX(), pos2.getY(), pos2.getZ());
+    }
+
     public void setTempPos1(UUID uuid, Location location) {
         tempPos1.put(uuid, location);
     }
@@ -132,16 +249,109 @@ public class DataManager {
     }
 
     public void saveFarm(String name, Location spawnLocation, Location pos1, Location pos2) {
-        farms.put(name, new FarmData(name, spawnLocation, pos1, pos2));
+        if (!loaded) {
+            // Würde beim Veröffentlichen der geladenen Farmen verloren gehen
+            pendingFarms.put(name, new FarmData(name, spawnLocation, pos1, pos2));
+            return;
+        }
+
+        Map<String, FarmData> updatedFarms = new HashMap<>(farms);
+        updatedFarms.put(name, new FarmData(name, spawnLocation, pos1, pos2));
+        NavigableSet<String> updatedIndex = new TreeSet<>(farmNameIndex);
+        updatedIndex.add(name);
+
+        if (unresolvedFarms.containsKey(name)) {
+            Map<String, FarmRecord> updatedUnresolved = new HashMap<>(unresolvedFarms);
+            updatedUnresolved.remove(name);
+            unresolvedFarms = updatedUnresolved;
+        }
+
+        setFarms(updatedFarms);
+        farmNameIndex = updatedIndex;
+        version++;
         saveData();
     }
 
+    private void setFarms(Map<String, FarmData> updatedFarms) {
+        Map<String, List<FarmData>> byWorld = new HashMap<>();
+        for (FarmData farm : updatedFarms.values()) {
+            World world = farm.getSpawnLocation().getWorld();
+            if (world != null) {
+                byWorld.computeIfAbsent(world.getName(), name -> new ArrayList<>()).add(farm);
+            }
+        }
+        byWorld.replaceAll((name, worldFarms) -> List.copyOf(worldFarms));
+        farms = updatedFarms;
+        farmsByWorld = byWorld;
+    }
+
     public Map<String, FarmData> getAllFarms() {
         return farms;
     }
 
+    // Alle Farmen in dieser Welt, leer wenn es keine gibt
+    public List<FarmData> getFarmsInWorld(String worldName) {
+        return farmsByWorld.getOrDefault(worldName, List.of());
+    }
+
     public FarmData getFarm(String name) {
         return farms.get(name);
     }
+
+    public FarmRecord getUnresolvedFarm(String name) {
+        return unresolvedFarms.get(name);
+    }
+
+    // Übernimmt Farmen, deren Welt gerade erst geladen bzw. erstellt wurde, in die Registry
+    public void resolveFarms(World world) {
+        Map<String, FarmData> updatedFarms = new HashMap<>(farms);
+        Map<String, FarmRecord> updatedUnresolved = new HashMap<>(unresolvedFarms);
+        NavigableSet<String> updatedIndex = new TreeSet<>(farmNameIndex);
+        boolean changed = false;
+
+        for (FarmRecord record : unresolvedFarms.values()) {
+            if (world.getName().equals(record.getWorldName())) {
+                updatedFarms.put(record.getName(), toFarmData(record, world));
+                updatedUnresolved.remove(record.getName());
+                updatedIndex.add(record.getName());
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            setFarms(updatedFarms);
+            unresolvedFarms = updatedUnresolved;
+            farmNameIndex = updatedIndex;
+            version++;
+        }
+    }
+
+    public List<String> getFarmNamesStartingWith(String prefix) {
+        return getNamesStartingWith(farmNameIndex, prefix);
+    }
+
+    // Großbuchstaben sortieren bei gleichem Namen vor Kleinbuchstaben, die kleinste Schreibweise
+    // des Präfixes ist daher die in Großbuchstaben. Zeichenweise, damit die Länge gleich bleibt.
+    static List<String> getNamesStartingWith(NavigableSet<String> index, String prefix) {
+        char[] chars = prefix.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toUpperCase(chars[i]);
+        }
+        String from = new String(chars);
+        return new ArrayList<>(index.subSet(from, true, prefix + Character.MAX_VALUE, true));
+    }
+
+    static NavigableSet<String> createNameIndex() {
+        return new TreeSet<>(NAME_ORDER);
+    }
+
+    public List<String> getSortedFarmNames() {
+        return new ArrayList<>(farmNameIndex);
+    }
+
+    // Wird bei jeder Änderung an den Farmen erhöht, damit Caches wissen, wann sie neu aufbauen müssen
+    public int getVersion() {
+        return version;
+    }
 }
 
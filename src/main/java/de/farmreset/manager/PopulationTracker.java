@@ -0,0 +1,239 @@
+package de.farmreset.manager;
+
+import de.farmreset.FarmReset;
+import de.farmreset.models.FarmData;
+import de.farmreset.scheduler.FarmTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Zeichnet je Farm-Welt und Wochenstunde die durchschnittliche Spielerzahl und MSPT auf
+public class PopulationTracker {
+
+    public static final String SERVER_TOTAL = "*";
+    private static final int HOURS_PER_WEEK = 7 * 24;
+    private static final int FILE_MAGIC = 0x46525054; // "FRPT"
+    private static final int FILE_VERSION = 1;
+    // Gewicht eines neuen Messwerts im gleitenden Durchschnitt (eine Messung pro Minute)
+    private static final float SMOOTHING = 0.02f;
+
+    private final FarmReset plugin;
+    private final File dataFile;
+    private final Map<String, Histogram> histograms = new HashMap<>();
+    private FarmTask sampleTask;
+    private FarmTask saveTask;
+
+    public PopulationTracker(FarmReset plugin) {
+        this.plugin = plugin;
+        this.dataFile = new File(plugin.getDataFolder(), "population.dat");
+        load();
+    }
+
+    public void start() {
+        // Jede Minute messen, alle 10 Minuten asynchron speichern
+        sampleTask = plugin.getTaskScheduler().runGlobalTimer(this::sample, 1200L, 1200L);
+        saveTask = plugin.getTaskScheduler().runAsyncTimer(this::save, 12000L, 12000L);
+    }
+
+    public void stop() {
+        if (sampleTask != null && !sampleTask.isCancelled()) {
+            sampleTask.cancel();
+        }
+        if (saveTask != null && !saveTask.isCancelled()) {
+            saveTask.cancel();
+        }
+        save();
+    }
+
+    public static int hourOfWeek(DayOfWeek day, int hour) {
+        return (day.getValue() - 1) * 24 + hour;
+    }
+
+    private void sample() {
+        ZonedDateTime now = ZonedDateTime.now(ResetManager.TIMEZONE);
+        int slot = hourOfWeek(now.getDayOfWeek(), now.getHour());
+        float mspt = (float) Math.max(0.0, getServerMspt());
+
+        Set<String> worldNames = new HashSet<>();
+        for (FarmData farm : plugin.getDataManager().getAllFarms().values()) {
+            if (farm.getSpawnLocation().getWorld() != null) {
+                worldNames.add(farm.getSpawnLocation().getWorld().getName());
+            }
+        }
+
+        synchronized (histograms) {
+            for (String worldName : worldNames) {
+                World world = Bukkit.getWorld(worldName);
+                int players = world != null ? world.getPlayers().size() : 0;
+                histograms.computeIfAbsent(worldName, name -> new Histogram()).record(slot, players, mspt);
+            }
+            // Ein Reset startet den ganzen Server neu, daher zählen alle Online-Spieler
+            histograms.computeIfAbsent(SERVER_TOTAL, name -> new Histogram())
+                .record(slot, Bukkit.getOnlinePlayers().size(), mspt);
+        }
+    }
+
+    // Folia hat keinen globalen Tick, dort gibt es keinen sinnvollen Server-Wert (-1)
+    public double getServerMspt() {
+        if (plugin.getTaskScheduler().isFolia()) {
+            return -1.0;
+        }
+        return Bukkit.getAverageTickTime();
+    }
+
+    // Ruhigste Stunde zwischen fromHour und toHour (inklusive) anhand der Farm-Welten.
+    // Fehlen für eine der Welten Messungen, wird die Statistik des ganzen Servers verwendet.
+    // Liefert -1, wenn auch dafür zu wenig Daten vorhanden sind.
+    public int getQuietestHour(Collection<String> worldNames, DayOfWeek day, int fromHour, int toHour, int minSamples) {
+        synchronized (histograms) {
+            return getQuietestHour(histograms, worldNames, day, fromHour, toHour, minSamples);
+        }
+    }
+
+    static int getQuietestHour(Map<String, Histogram> histograms, Collection<String> worldNames,
+                               DayOfWeek day, int fromHour, int toHour, int minSamples) {
+        List<Histogram> worlds = new ArrayList<>();
+        for (String worldName : worldNames) {
+            Histogram histogram = histograms.get(worldName);
+            if (histogram == null) {
+                worlds.clear();
+                break;
+            }
+            worlds.add(histogram);
+        }
+        int hour = worlds.isEmpty() ? -1 : findQuietestHour(worlds, day, fromHour, toHour, minSamples);
+        if (hour >= 0) {
+            return hour;
+        }
+
+        Histogram total = histograms.get(SERVER_TOTAL);
+        return total != null ? findQuietestHour(List.of(total), day, fromHour, toHour, minSamples) : -1;
+    }
+
+    private static int findQuietestHour(List<Histogram> selected, DayOfWeek day, int fromHour, int toHour, int minSamples) {
+        int bestHour = -1;
+        float bestPlayers = 0f;
+        float bestMspt = 0f;
+        for (int hour = Math.max(0, fromHour); hour <= Math.min(23, toHour); hour++) {
+            int slot = hourOfWeek(day, hour);
+            float players = 0f;
+            float mspt = 0f;
+            for (Histogram histogram : selected) {
+                if (histogram.samples[slot] < minSamples) {
+                    return -1;
+                }
+                players += histogram.players[slot];
+                mspt = Math.max(mspt, histogram.mspt[slot]);
+            }
+            if (bestHour == -1 || isQuieter(players, mspt, bestPlayers, bestMspt)) {
+                bestHour = hour;
+                bestPlayers = players;
+                bestMspt = mspt;
+            }
+        }
+        return bestHour;
+    }
+
+    public float getAveragePlayers(String worldName, DayOfWeek day, int hour) {
+        synchronized (histograms) {
+            Histogram histogram = histograms.get(worldName);
+            return histogram != null ? histogram.players[hourOfWeek(day, hour)] : 0f;
+        }
+    }
+
+    // Weniger Spieler zuerst, bei ähnlicher Spielerzahl entscheidet die MSPT
+    private static boolean isQuieter(float players, float mspt, float bestPlayers, float bestMspt) {
+        float playerDiff = players - bestPlayers;
+        if (Math.abs(playerDiff) >= 0.5f) {
+            return playerDiff < 0;
+        }
+        return mspt < bestMspt;
+    }
+
+    private void load() {
+        if (!dataFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dataFile.toPath())))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                plugin.getLogger().warning("population.dat hat ein unbekanntes Format und wird neu angelegt.");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String worldName = in.readUTF();
+                Histogram histogram = new Histogram();
+                for (int slot = 0; slot < HOURS_PER_WEEK; slot++) {
+                    histogram.players[slot] = in.readFloat();
+                    histogram.mspt[slot] = in.readFloat();
+                    histogram.samples[slot] = in.readInt();
+                }
+                histograms.put(worldName, histogram);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte population.dat nicht laden: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        File tempFile = new File(dataFile.getPath() + ".tmp");
+        synchronized (histograms) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(histograms.size());
+                for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    Histogram histogram = entry.getValue();
+                    for (int slot = 0; slot < HOURS_PER_WEEK; slot++) {
+                        out.writeFloat(histogram.players[slot]);
+                        out.writeFloat(histogram.mspt[slot]);
+                        out.writeInt(histogram.samples[slot]);
+                    }
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Konnte population.dat nicht speichern: " + e.getMessage());
+                return;
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte population.dat nicht speichern: " + e.getMessage());
+        }
+    }
+
+    static class Histogram {
+        private final float[] players = new float[HOURS_PER_WEEK];
+        private final float[] mspt = new float[HOURS_PER_WEEK];
+        private final int[] samples = new int[HOURS_PER_WEEK];
+
+        void record(int slot, int playerCount, float tickTime) {
+            if (samples[slot] == 0) {
+                players[slot] = playerCount;
+                mspt[slot] = tickTime;
+            } else {
+                players[slot] += (playerCount - players[slot]) * SMOOTHING;
+                mspt[slot] += (tickTime - mspt[slot]) * SMOOTHING;
+            }
+            samples[slot]++;
+        }
+    }
+}
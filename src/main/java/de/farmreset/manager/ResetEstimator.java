@@ -0,0 +1,337 @@
+package de.farmreset.manager;
+
+import de.farmreset.FarmReset;
+import de.farmreset.api.ResetContext;
+import de.farmreset.api.ResetPipeline;
+import de.farmreset.models.FarmData;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+// Misst die Dauer vergangener Resets und schätzt daraus die Dauer des nächsten.
+// Verschobene Resets (Folia, Offline-Reset) erledigen die Dateiarbeit erst beim Neustart und
+// werden deshalb getrennt von normalen Resets gemessen.
+public class ResetEstimator {
+
+    // Schritte, deren Dauer mit der Größe des Welt-Ordners wächst
+    private static final Set<String> SIZE_DEPENDENT = Set.of(ResetPipeline.CLEAR, ResetPipeline.RESTORE);
+    public static final String WORLD_BYTES = "farmreset.worldBytes";
+    // Gewicht eines neuen Messwerts, ältere Resets zählen weniger
+    private static final double SMOOTHING = 0.3;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private final FarmReset plugin;
+    private final Path metricsFile;
+    private final Properties metrics = new Properties();
+
+    public ResetEstimator(FarmReset plugin) {
+        this.plugin = plugin;
+        this.metricsFile = plugin.getDataFolder().toPath().resolve("reset-metrics.properties");
+        load();
+    }
+
+    // Wird nach jedem Reset mit den gemessenen Schrittdauern aufgerufen
+    public void recordReset(ResetContext context) {
+        Object worldBytes = context.getAttribute(WORLD_BYTES);
+        synchronized (metrics) {
+            recordStages(metrics, context.getStageDurations(), worldBytes instanceof Long bytes ? bytes : 0L, context.isDeferred());
+        }
+        saveAsync();
+    }
+
+    static void recordStages(Properties metrics, Map<String, Long> stageDurations, long worldBytes, boolean deferred) {
+        String prefix = prefix(deferred);
+        double megabytes = worldBytes / BYTES_PER_MB;
+
+        for (Map.Entry<String, Long> entry : stageDurations.entrySet()) {
+            String key = prefix + "stage." + entry.getKey();
+            update(metrics, key + ".millis", entry.getValue());
+            if (SIZE_DEPENDENT.contains(entry.getKey()) && megabytes >= 1) {
+                update(metrics, key + ".msPerMb", entry.getValue() / megabytes);
+            }
+        }
+    }
+
+    public void recordShutdown(boolean deferred) {
+        synchronized (metrics) {
+            metrics.setProperty("restart.shutdownAt", Long.toString(System.currentTimeMillis()));
+            metrics.setProperty("restart.deferred", Boolean.toString(deferred));
+        }
+        save();
+    }
+
+    // Zeit vom Herunterfahren bis alle Farm-Welten wieder erstellt sind
+    public void recordStartup() {
+        synchronized (metrics) {
+            long shutdownAt = getLong(metrics, "restart.shutdownAt");
+            if (shutdownAt <= 0) {
+                return;
+            }
+            boolean deferred = Boolean.parseBoolean(metrics.getProperty("restart.deferred"));
+            metrics.remove("restart.shutdownAt");
+            metrics.remove("restart.deferred");
+            update(metrics, prefix(deferred) + "restart.millis", System.currentTimeMillis() - shutdownAt);
+        }
+        saveAsync();
+    }
+
+    // Spielerzahlen werden im globalen Thread gelesen, der Welt-Ordner asynchron vermessen
+    public CompletableFuture<Estimate> estimate(FarmData farm, List<String> stageIds, boolean deferred) {
+        World world = farm.getSpawnLocation().getWorld();
+        if (world == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Welt nicht geladen"));
+        }
+
+        Estimate estimate = new Estimate(farm.getName(), world.getName());
+        Path worldFolder = world.getWorldFolder().toPath();
+        String worldName = world.getName();
+
+        CompletableFuture<Estimate> future = new CompletableFuture<>();
+        plugin.getTaskScheduler().runGlobal(() -> {
+            World loaded = Bukkit.getWorld(worldName);
+            estimate.playersInWorld = loaded != null ? loaded.getPlayers().size() : 0;
+            estimate.playersOnline = Bukkit.getOnlinePlayers().size();
+
+            plugin.getTaskScheduler().runAsync(() -> {
+                try {
+                    scanWorldFolder(worldFolder, estimate);
+                    synchronized (metrics) {
+                        applyMetrics(metrics, stageIds, deferred, estimate);
+                    }
+                    future.complete(estimate);
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        });
+        return future;
+    }
+
+    // Alle Farmen werden parallel zurückgesetzt, die langsamste bestimmt die Ausfallzeit.
+    // Liefert -1, wenn für einen Schritt oder den Neustart noch keine Messwerte vorliegen.
+    public CompletableFuture<Long> estimateDowntime(Collection<FarmData> farms, List<String> stageIds, boolean deferred) {
+        List<CompletableFuture<Estimate>> estimates = new ArrayList<>();
+        for (FarmData farm : farms) {
+            if (farm.getSpawnLocation().getWorld() != null) {
+                estimates.add(estimate(farm, stageIds, deferred));
+            }
+        }
+        return CompletableFuture.allOf(estimates.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            if (estimates.isEmpty()) {
+                return -1L;
+            }
+            long slowest = 0;
+            for (CompletableFuture<Estimate> estimate : estimates) {
+                if (!estimate.join().isComplete()) {
+                    return -1L;
+                }
+                slowest = Math.max(slowest, estimate.join().getTotalMillis());
+            }
+            return slowest;
+        });
+    }
+
+    // Größenabhängige Schritte werden mit der aktuellen Weltgröße hochgerechnet, sobald es dafür Messwerte gibt
+    static void applyMetrics(Properties metrics, List<String> stageIds, boolean deferred, Estimate estimate) {
+        String prefix = prefix(deferred);
+        double megabytes = estimate.worldBytes / BYTES_PER_MB;
+        for (String stageId : stageIds) {
+            String key = prefix + "stage." + stageId;
+            if (!metrics.containsKey(key + ".millis")) {
+                estimate.stageMillis.put(stageId, -1L);
+                continue;
+            }
+            double msPerMb = getDouble(metrics, key + ".msPerMb");
+            double millis = SIZE_DEPENDENT.contains(stageId) && msPerMb > 0 ? msPerMb * megabytes : getDouble(metrics, key + ".millis");
+            estimate.stageMillis.put(stageId, Math.round(millis));
+        }
+        String restartKey = prefix + "restart.millis";
+        estimate.restartMillis = metrics.containsKey(restartKey) ? Math.round(getDouble(metrics, restartKey)) : -1L;
+    }
+
+    private static String prefix(boolean deferred) {
+        return deferred ? "deferred." : "";
+    }
+
+    static void scanWorldFolder(Path worldFolder, Estimate estimate) throws IOException {
+        if (!Files.isDirectory(worldFolder)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(worldFolder)) {
+            stream.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    estimate.worldBytes += Files.size(file);
+                } catch (IOException ignored) {
+                    // Datei wurde währenddessen gelöscht
+                }
+                if (!file.getFileName().toString().endsWith(".mca")) {
+                    return;
+                }
+                switch (file.getParent().getFileName().toString()) {
+                    case "region" -> estimate.regionFiles++;
+                    case "entities" -> estimate.entityFiles++;
+                    case "poi" -> estimate.poiFiles++;
+                    default -> {
+                    }
+                }
+            });
+        }
+    }
+
+    public static long measureFolder(Path folder) {
+        if (!Files.isDirectory(folder)) {
+            return 0L;
+        }
+        try (Stream<Path> stream = Files.walk(folder)) {
+            return stream.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0L;
+                }
+            }).sum();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void update(Properties metrics, String key, double value) {
+        double current = getDouble(metrics, key);
+        double updated = metrics.containsKey(key) ? current + (value - current) * SMOOTHING : value;
+        metrics.setProperty(key, Double.toString(updated));
+    }
+
+    private static double getDouble(Properties metrics, String key) {
+        try {
+            return Double.parseDouble(metrics.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long getLong(Properties metrics, String key) {
+        try {
+            return Long.parseLong(metrics.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(metricsFile)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(metricsFile)) {
+            metrics.load(in);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte reset-metrics.properties nicht laden: " + e.getMessage());
+        }
+    }
+
+    private void saveAsync() {
+        plugin.getTaskScheduler().runAsync(this::save);
+    }
+
+    private void save() {
+        Path temp = metricsFile.resolveSibling(metricsFile.getFileName() + ".tmp");
+        synchronized (metrics) {
+            try {
+                Files.createDirectories(metricsFile.getParent());
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    metrics.store(out, "Gemessene Reset-Dauern");
+                }
+                Files.move(temp, metricsFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Konnte reset-metrics.properties nicht speichern: " + e.getMessage());
+            }
+        }
+    }
+
+    public static class Estimate {
+        private final String farmName;
+        private final String worldName;
+        private long worldBytes;
+        private int regionFiles;
+        private int entityFiles;
+        private int poiFiles;
+        private int playersInWorld;
+        private int playersOnline;
+        // -1 = noch keine Messwerte vorhanden
+        private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+        private long restartMillis = -1L;
+
+        Estimate(String farmName, String worldName) {
+            this.farmName = farmName;
+            this.worldName = worldName;
+        }
+
+        public String getFarmName() {
+            return farmName;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public long getWorldBytes() {
+            return worldBytes;
+        }
+
+        public int getRegionFiles() {
+            return regionFiles;
+        }
+
+        public int getEntityFiles() {
+            return entityFiles;
+        }
+
+        public int getPoiFiles() {
+            return poiFiles;
+        }
+
+        public int getPlayersInWorld() {
+            return playersInWorld;
+        }
+
+        public int getPlayersOnline() {
+            return playersOnline;
+        }
+
+        public Map<String, Long> getStageMillis() {
+            return stageMillis;
+        }
+
+        // -1 = noch keine Messwerte vorhanden
+        public long getRestartMillis() {
+            return restartMillis;
+        }
+
+        // Nur mit Messwerten für jeden Schritt und den Neustart gibt es eine Gesamtdauer
+        public boolean isComplete() {
+            return restartMillis >= 0 && !stageMillis.containsValue(-1L);
+        }
+
+        // -1, solange die Schätzung nicht vollständig ist
+        public long getTotalMillis() {
+            if (!isComplete()) {
+                return -1L;
+            }
+            return restartMillis + stageMillis.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
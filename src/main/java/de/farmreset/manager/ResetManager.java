@@ -1,46 +1,97 @@
 package de.farmreset.manager;
 
 import de.farmreset.FarmReset;
+import de.farmreset.api.ResetContext;
+import de.farmreset.api.ResetPipeline;
+import de.farmreset.api.ResetStage;
+import de.farmreset.api.StageThread;
+import de.farmreset.cluster.ResetCoordinator;
+import de.farmreset.cluster.ResetState;
 import de.farmreset.models.FarmData;
+import de.farmreset.region.ChunkArea;
+import de.farmreset.region.RegionPruner;
+import de.farmreset.scheduler.FarmTask;
+import de.farmreset.scheduler.TaskScheduler;
+import de.farmreset.storage.PendingResets;
+import de.farmreset.storage.TemplateStore;
+import de.farmreset.storage.WorldResetEngine;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.WorldCreator;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class ResetManager {
 
     private final FarmReset plugin;
     private final DataManager dataManager;
-    private BukkitTask checkTask;
-    private BukkitTask manualResetTask;
+    private final TaskScheduler scheduler;
+    private final ResetPipeline pipeline;
+    private final WorldRecreationQueue recreationQueue;
+    private final TemplateStore templateStore;
+    private FarmTask checkTask;
+    private FarmTask manualResetTask;
+    private final List<FarmTask> countdownTasks = new ArrayList<>();
     private FarmData currentManualReset;
-    private static final java.time.ZoneId TIMEZONE = java.time.ZoneId.of("Europe/Berlin");
+    private FarmTask offsetTask;
+    private volatile int staggerOffsetMinutes;
+    private boolean waitingForLease;
+    private boolean leaseRequestPending;
+    private boolean deferredForLoad;
+    private java.time.LocalDate plannedDate;
+    private int plannedHour;
+    private ZonedDateTime budgetCheckedFor;
+    public static final String FOLIA_RESET_UNSUPPORTED = "Unter Folia können nur Nether und End der Hauptwelt zurückgesetzt werden, "
+        + "da Folia keine Welten zur Laufzeit erstellen kann.";
+    static final java.time.ZoneId TIMEZONE = java.time.ZoneId.of("Europe/Berlin");
 
     public ResetManager(FarmReset plugin) {
         this.plugin = plugin;
         this.dataManager = plugin.getDataManager();
+        this.scheduler = plugin.getTaskScheduler();
+        this.templateStore = createTemplateStore(plugin);
+        this.pipeline = createPipeline();
+        this.recreationQueue = new WorldRecreationQueue(plugin, this);
         startResetCheck();
     }
 
     private void startResetCheck() {
         // Prüfe jede Minute, ob ein Reset fällig ist
-        checkTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        checkTask = scheduler.runGlobalTimer(() -> {
             checkAndReset();
         }, 0L, 1200L); // 60 Sekunden = 1200 Ticks
+
+        // Cluster-Versatz asynchron aktualisieren, da dafür das gemeinsame Verzeichnis gelesen wird
+        offsetTask = scheduler.runAsyncTimer(() -> {
+            staggerOffsetMinutes = plugin.getResetCoordinator().getStaggerOffsetMinutes();
+        }, 0L, 1200L);
     }
 
     private void checkAndReset() {
+        // Ohne geladene Farmen würde ein Reset nichts zurücksetzen
+        if (!dataManager.isLoaded()) {
+            return;
+        }
+        
         ZonedDateTime now = ZonedDateTime.now(TIMEZONE);
+        checkDowntimeBudget(now);
         
         // Lese Config-Werte
-        int resetHour = plugin.getConfig().getInt("resetHour", 12);
         int intervalDays = plugin.getConfig().getInt("resetIntervalDays", 30);
         long lastResetTimestamp = plugin.getConfig().getLong("lastReset", 0);
         
@@ -51,45 +102,252 @@ public class ResetManager {
             plugin.saveConfig();
         }
         
+        ZonedDateTime scheduledReset = getScheduledReset(now);
+        
+        // Reset nur am geplanten Tag
+        if (!scheduledReset.toLocalDate().equals(now.toLocalDate())) {
+            return;
+        }
+        
+        // Eigener Zeitpunkt dieses Servers: Reset-Stunde plus Cluster-Versatz
+        ZonedDateTime resetTime = scheduledReset.plusMinutes(staggerOffsetMinutes);
+        int maxWaitMinutes = Math.max(0, plugin.getConfig().getInt("cluster.maxWaitMinutes", 60));
+        
+        if (now.isBefore(resetTime)) {
+            return;
+        }
+        
+        // Prüfe ob wir bereits heute einen Reset gemacht haben (Toleranz: 1 Stunde)
+        long lastResetToday = plugin.getConfig().getLong("lastResetToday", 0);
+        if (lastResetToday >= resetTime.toEpochSecond() - 3600) {
+            return;
+        }
+        
+        // Wie bisher startet ein Reset nur in der Minute des Reset-Zeitpunkts. Danach wird nur
+        // weitergemacht, wenn er wegen Last oder eines belegten Reset-Leases bereits wartet.
+        boolean pending = waitingForLease || deferredForLoad || leaseRequestPending;
+        if (!pending && !now.isBefore(resetTime.plusMinutes(1))) {
+            return;
+        }
+        
+        // Bei hoher Last den Reset um bis zu maxDeferMinutes verschieben
+        int maxDeferMinutes = isAdaptiveResetEnabled() ? Math.max(0, plugin.getConfig().getInt("adaptiveReset.maxDeferMinutes", 30)) : 0;
+        double maxMspt = plugin.getConfig().getDouble("adaptiveReset.maxMspt", 0);
+        if (maxDeferMinutes > 0 && maxMspt > 0 && now.isBefore(resetTime.plusMinutes(maxDeferMinutes))) {
+            double mspt = plugin.getPopulationTracker().getServerMspt();
+            if (mspt > maxMspt) {
+                if (!deferredForLoad) {
+                    plugin.getLogger().info(String.format("Server ist ausgelastet (%.1f MSPT), Reset wird verschoben...", mspt));
+                    deferredForLoad = true;
+                }
+                return;
+            }
+        }
+        deferredForLoad = false;
+        
+        // Spätestens maxWaitMinutes (plus Verschiebung wegen Last) nach dem Reset-Zeitpunkt aufgeben
+        ResetCoordinator coordinator = plugin.getResetCoordinator();
+        if (now.isAfter(resetTime.plusMinutes(maxWaitMinutes + maxDeferMinutes))) {
+            if (waitingForLease) {
+                plugin.getLogger().warning("Reset-Lease wurde innerhalb von " + maxWaitMinutes + " Minuten nicht frei, Reset wird übersprungen!");
+                scheduler.runAsync(() -> coordinator.publishState(ResetState.IDLE));
+                waitingForLease = false;
+            }
+            return;
+        }
+        
+        if (leaseRequestPending) {
+            return;
+        }
+        
+        // Nur ein Server im Netzwerk darf gleichzeitig resetten. Der Lease liegt evtl. auf einem
+        // Netzlaufwerk, daher wird er asynchron angefordert und das Ergebnis im Main-Thread ausgewertet.
+        leaseRequestPending = true;
+        scheduler.runAsync(() -> {
+            boolean acquired = coordinator.tryAcquireResetLease();
+            if (!acquired && !waitingForLease) {
+                coordinator.publishState(ResetState.WAITING);
+            }
+            scheduler.runGlobal(() -> {
+                leaseRequestPending = false;
+                if (!acquired) {
+                    if (!waitingForLease) {
+                        plugin.getLogger().info("Ein anderer Server führt gerade einen Reset durch, warte auf freien Reset-Lease...");
+                        waitingForLease = true;
+                    }
+                    return;
+                }
+                waitingForLease = false;
+                
+                long today = ZonedDateTime.now(TIMEZONE).toEpochSecond();
+                performReset();
+                plugin.getConfig().set("lastReset", today);
+                plugin.getConfig().set("lastResetToday", today);
+                plugin.saveConfig();
+            });
+        });
+    }
+    
+    // Warnt einmal vor jedem Reset, wenn die geschätzte Ausfallzeit das Budget überschreitet
+    private void checkDowntimeBudget(ZonedDateTime now) {
+        long budgetSeconds = plugin.getConfig().getLong("resetBudget.maxDowntimeSeconds", 0);
+        if (budgetSeconds <= 0 || plugin.getConfig().getLong("lastReset", 0) == 0) {
+            return;
+        }
+        
+        ZonedDateTime nextReset = getNextResetDateTime(now);
+        long minutesUntil = java.time.Duration.between(now, nextReset).toMinutes();
+        if (minutesUntil < 0 || minutesUntil > plugin.getConfig().getLong("resetBudget.warnMinutes", 60)
+            || nextReset.equals(budgetCheckedFor)) {
+            return;
+        }
+        budgetCheckedFor = nextReset;
+        
+        plugin.getResetEstimator().estimateDowntime(dataManager.getAllFarms().values(), getStageIds(), isDeferredReset()).thenAccept(millis -> {
+            if (millis < 0) {
+                // Ohne Messwerte lässt sich nichts über das Budget sagen, das soll nicht als "im Budget" durchgehen
+                plugin.getLogger().warning("Ausfallzeit des Resets in " + minutesUntil + " Minuten kann nicht geschätzt werden, "
+                    + "es liegen noch keine vollständigen Messwerte vor. Das Budget von " + budgetSeconds + " Sekunden wird nicht geprüft.");
+                return;
+            }
+            if (millis <= budgetSeconds * 1000L) {
+                return;
+            }
+            String message = "§cDer Reset in " + minutesUntil + " Minuten dauert voraussichtlich " + (millis / 1000)
+                + " Sekunden und überschreitet das Budget von " + budgetSeconds + " Sekunden!";
+            scheduler.runGlobal(() -> {
+                plugin.getLogger().warning(message.replaceAll("§.", ""));
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    if (player.hasPermission("farmreset.admin")) {
+                        player.sendMessage(message);
+                    }
+                }
+            });
+        });
+    }
+    
+    // Folia kann Welten nicht zur Laufzeit entladen, im Offline-Modus übernimmt das Startskript die Dateiarbeit
+    public boolean isDeferredReset() {
+        return scheduler.isFolia() || plugin.getConfig().getBoolean("offlineReset.enabled", false);
+    }
+    
+    public List<String> getStageIds() {
+        List<String> stageIds = new ArrayList<>();
+        for (ResetStage stage : pipeline.getStages()) {
+            stageIds.add(stage.getId());
+        }
+        return stageIds;
+    }
+    
+    private ZonedDateTime getScheduledReset(ZonedDateTime now) {
+        int resetHour = plugin.getConfig().getInt("resetHour", 12);
+        int intervalDays = plugin.getConfig().getInt("resetIntervalDays", 30);
+        long lastResetTimestamp = plugin.getConfig().getLong("lastReset", 0);
+        
         ZonedDateTime lastReset = ZonedDateTime.ofInstant(
             java.time.Instant.ofEpochSecond(lastResetTimestamp), 
             TIMEZONE
         );
         
         // Berechne nächsten Reset-Termin: letzter Reset + Intervall-Tage um Reset-Stunde
-        ZonedDateTime nextReset = lastReset.plusDays(intervalDays)
+        ZonedDateTime scheduledReset = lastReset.plusDays(intervalDays)
             .withHour(resetHour)
             .withMinute(0)
             .withSecond(0)
             .withNano(0);
         
-        // Wenn der nächste Reset in der Vergangenheit liegt, berechne den nächsten gültigen
-        while (nextReset.isBefore(now) || nextReset.isEqual(now)) {
-            nextReset = nextReset.plusDays(intervalDays);
+        // Verpasste Termine überspringen, der heutige Termin bleibt erhalten
+        while (scheduledReset.toLocalDate().isBefore(now.toLocalDate())) {
+            scheduledReset = scheduledReset.plusDays(intervalDays);
         }
         
-        // Prüfe ob jetzt der Reset-Zeitpunkt ist (Stunde und Minute passen)
-        if (now.getHour() == resetHour && now.getMinute() == 0) {
-            // Prüfe ob der berechnete nächste Reset heute ist
-            if (nextReset.toLocalDate().equals(now.toLocalDate())) {
-                // Prüfe ob wir bereits heute einen Reset gemacht haben (Toleranz: 1 Stunde)
-                long today = now.toEpochSecond();
-                long lastResetToday = plugin.getConfig().getLong("lastResetToday", 0);
-                
-                if (lastResetToday < today - 3600) { // 1 Stunde Toleranz
-                    performReset();
-                    plugin.getConfig().set("lastReset", today);
-                    plugin.getConfig().set("lastResetToday", today);
-                    plugin.saveConfig();
+        return scheduledReset.withHour(getPlannedHour(scheduledReset));
+    }
+    
+    // Nächster Reset-Zeitpunkt dieses Servers inklusive ruhigster Stunde und Cluster-Versatz
+    public ZonedDateTime getNextResetDateTime(ZonedDateTime now) {
+        int intervalDays = plugin.getConfig().getInt("resetIntervalDays", 30);
+        ZonedDateTime scheduledReset = getScheduledReset(now);
+        ZonedDateTime resetTime = scheduledReset.plusMinutes(staggerOffsetMinutes);
+        long lastResetToday = plugin.getConfig().getLong("lastResetToday", 0);
+        
+        // Heutiger Termin bereits erledigt oder vorbei: nächster Zyklus
+        if (resetTime.isBefore(now) && lastResetToday >= resetTime.toEpochSecond() - 3600) {
+            ZonedDateTime next = scheduledReset.plusDays(intervalDays);
+            resetTime = next.withHour(getPlannedHour(next)).plusMinutes(staggerOffsetMinutes);
+        }
+        return resetTime;
+    }
+    
+    private boolean isAdaptiveResetEnabled() {
+        return plugin.getConfig().getBoolean("adaptiveReset.enabled", false);
+    }
+    
+    // Wählt innerhalb des Fensters um resetHour die Stunde mit den wenigsten Spielern in den
+    // Farm-Welten, einmal pro Reset-Tag. Die Wahl wird wie lastReset in der Config gespeichert,
+    // damit sich der Termin auch nach einem Neustart nicht mehr verschiebt.
+    private synchronized int getPlannedHour(ZonedDateTime scheduledReset) {
+        int resetHour = plugin.getConfig().getInt("resetHour", 12);
+        if (!isAdaptiveResetEnabled()) {
+            return resetHour;
+        }
+        
+        java.time.LocalDate date = scheduledReset.toLocalDate();
+        if (plannedDate == null && date.toString().equals(plugin.getConfig().getString("plannedResetDate"))) {
+            plannedHour = plugin.getConfig().getInt("plannedResetHour", resetHour);
+            plannedDate = date;
+        }
+        if (!date.equals(plannedDate)) {
+            int windowHours = plugin.getConfig().getInt("adaptiveReset.windowHours", 3);
+            int minSamples = plugin.getConfig().getInt("adaptiveReset.minSamples", 30);
+            Set<String> worldNames = new HashSet<>();
+            for (FarmData farm : dataManager.getAllFarms().values()) {
+                String worldName = getWorldName(farm);
+                if (worldName != null) {
+                    worldNames.add(worldName);
                 }
             }
+            int quietestHour = plugin.getPopulationTracker().getQuietestHour(
+                worldNames, date.getDayOfWeek(), resetHour - windowHours, resetHour + windowHours, minSamples);
+            plannedHour = quietestHour >= 0 ? quietestHour : resetHour;
+            plannedDate = date;
+            
+            int hour = plannedHour;
+            scheduler.runGlobal(() -> {
+                plugin.getConfig().set("plannedResetDate", date.toString());
+                plugin.getConfig().set("plannedResetHour", hour);
+                plugin.saveConfig();
+            });
         }
+        return plannedHour;
+    }
+    
+    public int getStaggerOffsetMinutes() {
+        return staggerOffsetMinutes;
     }
 
     private void performReset() {
         Logger logger = plugin.getLogger();
         logger.info("=== Farm Reset wird durchgeführt ===");
 
+        // Hole alle Farmen, die auf diesem Server zurückgesetzt werden können
+        List<FarmData> farms = new ArrayList<>();
+        for (FarmData farm : dataManager.getAllFarms().values()) {
+            if (canReset(farm)) {
+                farms.add(farm);
+            } else {
+                logger.warning("Farm '" + farm.getName() + "' wird übersprungen: " + FOLIA_RESET_UNSUPPORTED);
+            }
+        }
+        
+        if (farms.isEmpty()) {
+            logger.warning("Keine Farmen zum Zurücksetzen gefunden!");
+            finishClusterReset();
+            return;
+        }
+        
+        plugin.getResetCoordinator().publishState(ResetState.RESETTING);
+
         // Benachrichtige alle Spieler
         for (Player player : Bukkit.getOnlinePlayers()) {
             player.sendMessage("§c§l=== FARM RESET ===");
@@ -97,213 +355,549 @@ public class ResetManager {
             player.sendMessage("§7Der Server wird in 2 Sekunden neugestartet...");
         }
 
-        // Hole alle Farmen
-        Map<String, FarmData> farms = dataManager.getAllFarms();
-        
-        if (farms.isEmpty()) {
-            logger.warning("Keine Farmen zum Zurücksetzen gefunden!");
-            return;
+        // Für jede Welt die Reset-Pipeline starten, die Welten laufen dabei unabhängig voneinander.
+        // Farmen in derselben Welt teilen sich einen Durchlauf, sonst würden mehrere Pipelines
+        // gleichzeitig denselben Ordner löschen, bereinigen oder wiederherstellen.
+        Map<String, List<FarmData>> farmsByWorld = new LinkedHashMap<>();
+        for (FarmData farm : farms) {
+            farmsByWorld.computeIfAbsent(getWorldName(farm), name -> new ArrayList<>()).add(farm);
         }
-
-        // Für jede Farm: World löschen und markieren
-        for (FarmData farm : farms.values()) {
-            deleteFarmWorld(farm, logger);
+        List<CompletableFuture<ResetContext>> resets = new ArrayList<>();
+        for (List<FarmData> worldFarms : farmsByWorld.values()) {
+            resets.add(runPipeline(worldFarms, false));
         }
 
-        // Starte Server-Neustart nach 2 Sekunden
-        logger.info("=== Farm Reset - Server wird neugestartet ===");
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            Bukkit.shutdown();
-        }, 40L); // 2 Sekunden = 40 Ticks
+        // Starte Server-Neustart 2 Sekunden nachdem alle Welten zurückgesetzt wurden
+        CompletableFuture.allOf(resets.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (error != null) {
+                abortFailedReset(farms);
+                return;
+            }
+            logger.info("=== Farm Reset - Server wird neugestartet ===");
+            scheduleRestart();
+        });
+    }
+    
+    // Nach einem Fehler wird nicht neugestartet. Entladene Welten werden wieder geladen bzw. neu erstellt,
+    // damit keine Farm ohne Welt zurückbleibt.
+    private void abortFailedReset(Collection<FarmData> farms) {
+        scheduler.runGlobal(() -> {
+            plugin.getLogger().severe("Farm Reset fehlgeschlagen, der Server wird nicht neugestartet!");
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.hasPermission("farmreset.admin")) {
+                    player.sendMessage("§cFarm Reset fehlgeschlagen, der Server wird nicht neugestartet! Details im Log.");
+                }
+            }
+            for (FarmData farm : farms) {
+                String worldName = getWorldName(farm);
+                if (worldName != null && Bukkit.getWorld(worldName) == null) {
+                    markFarmForSpawnReset(farm.getName());
+                }
+            }
+            checkAndSetSpawnsAfterRestart();
+        });
+    }
+    
+    // Folia kann Welten zur Laufzeit weder entladen noch erstellen. Eine gelöschte Welt muss der Server
+    // daher beim Start selbst neu anlegen, das gilt nur für Nether und End der Hauptwelt.
+    public boolean canReset(FarmData farm) {
+        String worldName = getWorldName(farm);
+        if (worldName == null) {
+            return false;
+        }
+        if (!scheduler.isFolia()) {
+            return true;
+        }
+        String levelName = Bukkit.getWorlds().get(0).getName();
+        return worldName.equals(levelName + "_nether") || worldName.equals(levelName + "_the_end");
     }
     
-    private void deleteFarmWorld(FarmData farm, Logger logger) {
-        Location spawnLocation = farm.getSpawnLocation();
-        World world = spawnLocation.getWorld();
+    private static String getWorldName(FarmData farm) {
+        World world = farm.getSpawnLocation().getWorld();
+        return world != null ? world.getName() : null;
+    }
+    
+    // Alle Farmen müssen in derselben Welt liegen
+    private CompletableFuture<ResetContext> runPipeline(List<FarmData> farms, boolean manual) {
+        World world = farms.get(0).getSpawnLocation().getWorld();
+        if (world == null) {
+            plugin.getLogger().warning("Welt für Farm '" + farms.get(0).getName() + "' nicht gefunden!");
+            return CompletableFuture.completedFuture(null);
+        }
         
+        ResetContext context = new ResetContext(farms, world.getName(),
+            new File(Bukkit.getWorldContainer(), world.getName()), manual);
+        return pipeline.run(context).whenComplete((done, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Reset der Welt '" + world.getName() + "' fehlgeschlagen: " + error.getMessage());
+            } else {
+                plugin.getResetEstimator().recordReset(done);
+            }
+        });
+    }
+    
+    private ResetPipeline createPipeline() {
+        ResetPipeline resetPipeline = new ResetPipeline(scheduler);
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.EVACUATE, StageThread.MAIN, this::evacuateWorld));
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.UNLOAD, StageThread.MAIN, this::unloadWorld));
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.CLEAR, StageThread.ASYNC, this::clearWorld));
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.RESTORE, StageThread.ASYNC, this::restoreTemplate));
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.REGENERATE, StageThread.MAIN, this::scheduleRegeneration));
+        resetPipeline.addStage(ResetStage.of(ResetPipeline.FINALIZE, StageThread.MAIN, this::finalizeReset));
+        return resetPipeline;
+    }
+    
+    public ResetPipeline getPipeline() {
+        return pipeline;
+    }
+    
+    private CompletableFuture<Void> evacuateWorld(ResetContext context) {
+        World world = Bukkit.getWorld(context.getWorldName());
         if (world == null) {
-            logger.warning("Welt für Farm '" + farm.getName() + "' nicht gefunden!");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-
-        String worldName = world.getName();
-        logger.info("Lösche Welt '" + worldName + "'...");
+        plugin.getLogger().info("Setze Welt '" + context.getWorldName() + "' zurück...");
 
         // Entferne alle Spieler aus der Welt
+        List<CompletableFuture<Boolean>> teleports = new ArrayList<>();
+        World defaultWorld = Bukkit.getWorlds().get(0);
         for (Player player : world.getPlayers()) {
-            World defaultWorld = Bukkit.getWorlds().get(0);
             if (defaultWorld != null && !defaultWorld.equals(world)) {
                 Location defaultSpawn = defaultWorld.getSpawnLocation();
-                player.teleport(defaultSpawn);
+                teleports.add(scheduler.teleport(player, defaultSpawn));
                 player.sendMessage("§cDu wurdest aus der zurückgesetzten Welt teleportiert!");
             }
         }
-
-        // Entlade die Welt
-        Bukkit.unloadWorld(world, false);
-
-        // Lösche die Welt-Dateien
+        return CompletableFuture.allOf(teleports.toArray(new CompletableFuture[0]));
+    }
+    
+    private CompletableFuture<Void> unloadWorld(ResetContext context) {
+        String worldName = context.getWorldName();
+        
+        if (isDeferredReset()) {
+            // Folia kann Welten nicht zur Laufzeit entladen, die Dateien werden vor bzw. beim nächsten Start bearbeitet
+            markWorldForStartup(worldName, context.getFarms());
+            context.setDeferred(true);
+            plugin.getLogger().info("Welt '" + worldName + "' wird beim nächsten Start zurückgesetzt.");
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        context.setWorldFolder(world.getWorldFolder());
+        
+        // Beim Bereinigen speichern, damit die Regiondateien auf dem aktuellen Stand sind
+        if (!Bukkit.unloadWorld(world, isPruneMode())) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Welt '" + worldName + "' konnte nicht entladen werden"));
+        }
+        
+        // Größe für die Durchsatzmessung festhalten, außerhalb des gemessenen CLEAR-Schritts
+        CompletableFuture<Void> measured = new CompletableFuture<>();
+        scheduler.runAsync(() -> {
+            context.setAttribute(ResetEstimator.WORLD_BYTES, ResetEstimator.measureFolder(context.getWorldFolder().toPath()));
+            measured.complete(null);
+        });
+        return measured;
+    }
+    
+    private CompletableFuture<Void> clearWorld(ResetContext context) {
+        File worldFolder = context.getWorldFolder();
+        if (context.isDeferred() || worldFolder == null || !worldFolder.exists()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // Schutz, falls UNLOAD übersprungen wurde (z.B. durch ein abgebrochenes FarmResetStageEvent).
+        // Die Prüfung läuft im globalen Thread, die Dateiarbeit danach wieder asynchron.
+        CompletableFuture<Boolean> stillLoaded = new CompletableFuture<>();
+        scheduler.runGlobal(() -> stillLoaded.complete(Bukkit.getWorld(context.getWorldName()) != null));
+        return stillLoaded.thenCompose(loaded -> {
+            if (loaded) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Welt '" + context.getWorldName() + "' ist noch geladen und wird nicht gelöscht"));
+            }
+            CompletableFuture<Void> cleared = new CompletableFuture<>();
+            scheduler.runAsync(() -> {
+                try {
+                    deleteOrPrune(context, worldFolder);
+                    cleared.complete(null);
+                } catch (IOException | RuntimeException e) {
+                    cleared.completeExceptionally(e);
+                }
+            });
+            return cleared;
+        });
+    }
+    
+    private void deleteOrPrune(ResetContext context, File worldFolder) throws IOException {
+        if (isPruneMode()) {
+            // Entfernt nur kaum besuchte Chunks und Chunks außerhalb der Farm-Bereiche, die Welt bleibt erhalten
+            pruneWorldFolder(plugin, createPruner(plugin, getPruneArea(context.getFarms())), worldFolder, context.getWorldName());
+        } else {
+            WorldResetEngine.deleteDirectory(worldFolder.toPath());
+            plugin.getLogger().info("Welt-Ordner '" + context.getWorldName() + "' gelöscht.");
+        }
+    }
+    
+    private CompletableFuture<Void> restoreTemplate(ResetContext context) {
+        File worldFolder = context.getWorldFolder();
+        if (context.isDeferred() || worldFolder == null || !isTemplateRestore(context.getWorldName())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        long start = System.currentTimeMillis();
+        try {
+            TemplateStore.Result result = templateStore.materialize(context.getWorldName(), worldFolder.toPath());
+            plugin.getLogger().info("Welt '" + context.getWorldName() + "' aus Vorlage wiederhergestellt: " + result.getFiles()
+                + " Dateien, " + result.getLinked() + " verlinkt, " + (result.getBytesWritten() / (1024 * 1024)) + " MB kopiert ("
+                + (System.currentTimeMillis() - start) + " ms).");
+        } catch (IOException | UncheckedIOException e) {
+            // materialize() ersetzt den Ordner erst am Ende. Was trotzdem noch liegt, wird entfernt,
+            // damit der Server die Welt beim Start neu generiert statt eine halbe Welt zu laden.
+            plugin.getLogger().severe("Vorlage für Welt '" + context.getWorldName() + "' konnte nicht wiederhergestellt werden, "
+                + "die Welt wird neu generiert: " + e.getMessage());
+            try {
+                WorldResetEngine.deleteDirectory(worldFolder.toPath());
+            } catch (IOException | UncheckedIOException deleteError) {
+                return CompletableFuture.failedFuture(deleteError);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    // Speichert die aktuelle Farm-Welt als neue Generation ihrer Vorlage
+    public CompletableFuture<TemplateStore.Result> saveTemplate(FarmData farm) {
+        World world = farm.getSpawnLocation().getWorld();
+        if (world == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Welt nicht geladen"));
+        }
+        if (scheduler.isFolia()) {
+            // Folia kann Welten nicht gezielt speichern, Vorlagen dort offline mit --snapshot anlegen
+            return CompletableFuture.failedFuture(new UnsupportedOperationException("Unter Folia nur offline möglich (--snapshot)"));
+        }
+        
+        // Während der Kopie dürfen keine Regiondateien geschrieben werden, sonst landen halb
+        // geschriebene Dateien in der Vorlage. Autosave aus, dann alles einmal vollständig speichern.
+        boolean autoSave = world.isAutoSave();
+        world.setAutoSave(false);
+        world.save();
+        String worldName = world.getName();
         File worldFolder = world.getWorldFolder();
-        if (worldFolder.exists()) {
-            deleteDirectory(worldFolder);
-            logger.info("Welt-Ordner '" + worldName + "' gelöscht.");
+        CompletableFuture<TemplateStore.Result> future = new CompletableFuture<>();
+        scheduler.runAsync(() -> {
+            try {
+                TemplateStore.Result result = templateStore.snapshot(worldName, worldFolder.toPath());
+                templateStore.cleanup(worldName, plugin.getConfig().getInt("templates.keepGenerations", 3));
+                future.complete(result);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            } finally {
+                scheduler.runGlobal(() -> {
+                    World loaded = Bukkit.getWorld(worldName);
+                    if (loaded != null) {
+                        loaded.setAutoSave(autoSave);
+                    }
+                });
+            }
+        });
+        return future;
+    }
+    
+    private boolean isTemplateRestore(String worldName) {
+        return plugin.getConfig().getBoolean("templates.enabled", false) && !isPruneMode() && templateStore.hasTemplate(worldName);
+    }
+    
+    private static TemplateStore createTemplateStore(FarmReset plugin) {
+        int threads = plugin.getConfig().getInt("prune.threads", 0);
+        return new TemplateStore(plugin.getDataFolder().toPath().resolve(TemplateStore.FOLDER_NAME),
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), plugin.getLogger());
+    }
+    
+    private CompletableFuture<Void> scheduleRegeneration(ResetContext context) {
+        // Die Welt wird nach dem Neustart neu erstellt, siehe checkAndSetSpawnsAfterRestart()
+        for (FarmData farm : context.getFarms()) {
+            markFarmForSpawnReset(farm.getName());
         }
-
-        // Speichere, dass nach dem Neustart der Spawn gesetzt werden muss
-        markFarmForSpawnReset(farm.getName());
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    private CompletableFuture<Void> finalizeReset(ResetContext context) {
+        List<String> names = new ArrayList<>();
+        for (FarmData farm : context.getFarms()) {
+            names.add(farm.getName());
+        }
+        plugin.getLogger().info("Welt '" + context.getWorldName() + "' mit " + names + " zurückgesetzt " + context.getStageDurations() + ".");
+        return CompletableFuture.completedFuture(null);
     }
 
     private void resetFarmWorld(FarmData farm, Logger logger) {
-        // Lösche die Welt
-        deleteFarmWorld(farm, logger);
-        
-        // Starte Server-Neustart nach 2 Sekunden
-        logger.info("Starte Server-Neustart für Farm-Reset...");
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        // Setze die Welt zurück und starte danach den Server neu. Andere Farmen in derselben Welt
+        // werden dabei mit zurückgesetzt.
+        List<FarmData> worldFarms = dataManager.getFarmsInWorld(getWorldName(farm));
+        if (worldFarms.isEmpty()) {
+            worldFarms = List.of(farm);
+        }
+        runPipeline(worldFarms, true).whenComplete((ignored, error) -> {
+            if (error != null) {
+                abortFailedReset(worldFarms);
+                return;
+            }
+            logger.info("Starte Server-Neustart für Farm-Reset...");
+            scheduleRestart();
+        });
+    }
+    
+    private void scheduleRestart() {
+        plugin.getResetCoordinator().publishState(ResetState.RESTARTING);
+        scheduler.runGlobalLater(() -> {
+            plugin.getResetEstimator().recordShutdown(isDeferredReset());
             Bukkit.shutdown();
         }, 40L); // 2 Sekunden = 40 Ticks
     }
     
-    private void markFarmForSpawnReset(String farmName) {
-        java.util.List<String> farmsToReset = plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart");
-        if (!farmsToReset.contains(farmName)) {
-            farmsToReset.add(farmName);
-            plugin.getConfig().set("farmsToSetSpawnAfterRestart", farmsToReset);
-            plugin.saveConfig();
+    private void markWorldForStartup(String worldName, List<FarmData> farms) {
+        Path pendingFile = getPendingFile(plugin);
+        try {
+            PendingResets pending = PendingResets.load(pendingFile);
+            if (isPruneMode()) {
+                pending.markPrune(worldName, getPruneArea(farms));
+                pending.setPruneSettings(
+                    plugin.getConfig().getBoolean("prune.deleteOutsideArea", true),
+                    plugin.getConfig().getLong("prune.minInhabitedSeconds", 300) * 20L,
+                    plugin.getConfig().getLong("prune.maxIdleDays", 0) * 24000L);
+            } else if (isTemplateRestore(worldName)) {
+                pending.markRestore(worldName);
+            } else {
+                pending.markDelete(worldName);
+            }
+            pending.save(pendingFile);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Konnte Welt '" + worldName + "' nicht für den Reset vormerken: " + e.getMessage());
         }
     }
     
-    public void checkAndSetSpawnsAfterRestart() {
-        java.util.List<String> farmsToReset = new java.util.ArrayList<>(plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart"));
-        
-        if (farmsToReset.isEmpty()) {
-            return;
+    private static Path getPendingFile(FarmReset plugin) {
+        return plugin.getDataFolder().toPath().resolve(PendingResets.FILE_NAME);
+    }
+    
+    private boolean isPruneMode() {
+        return "PRUNE".equalsIgnoreCase(plugin.getConfig().getString("resetMode", "DELETE"));
+    }
+    
+    // Gemeinsamer Bereich aller Farmen einer Welt, damit keine Farm beim Bereinigen Chunks verliert
+    private ChunkArea getPruneArea(List<FarmData> farms) {
+        int marginChunks = plugin.getConfig().getInt("prune.marginChunks", 2);
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (FarmData farm : farms) {
+            minX = Math.min(minX, farm.getMinBlockX());
+            minZ = Math.min(minZ, farm.getMinBlockZ());
+            maxX = Math.max(maxX, farm.getMaxBlockX());
+            maxZ = Math.max(maxZ, farm.getMaxBlockZ());
         }
-        
+        return ChunkArea.fromBlocks(minX, minZ, maxX, maxZ, marginChunks);
+    }
+
+    
+    private static RegionPruner createPruner(FarmReset plugin, ChunkArea area) {
+        int threads = plugin.getConfig().getInt("prune.threads", 0);
+        return new RegionPruner(
+            area,
+            plugin.getConfig().getBoolean("prune.deleteOutsideArea", true),
+            plugin.getConfig().getLong("prune.minInhabitedSeconds", 300) * 20L,
+            plugin.getConfig().getLong("prune.maxIdleDays", 0) * 24000L,
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+            plugin.getLogger()
+        );
+    }
+    
+    private static void pruneWorldFolder(FarmReset plugin, RegionPruner pruner, File worldFolder, String worldName) {
         Logger logger = plugin.getLogger();
-        logger.info("Prüfe ob Spawns nach Neustart gesetzt werden müssen...");
-        
-        java.util.List<String> processedFarms = new java.util.ArrayList<>();
-        
-        for (String farmName : farmsToReset) {
-            FarmData farm = dataManager.getFarm(farmName);
-            if (farm == null) {
-                logger.warning("Farm '" + farmName + "' nicht gefunden, entferne aus Reset-Liste!");
-                processedFarms.add(farmName);
-                continue;
+        long start = System.currentTimeMillis();
+        try {
+            RegionPruner.Result result = pruner.prune(worldFolder.toPath());
+            logger.info("Welt '" + worldName + "' bereinigt: " + result.getChunksDeleted() + " von "
+                + result.getChunksScanned() + " Chunks in " + result.getRegionFiles() + " Regiondateien gelöscht, "
+                + ((result.getBytesBefore() - result.getBytesAfter()) / (1024 * 1024)) + " MB frei ("
+                + (System.currentTimeMillis() - start) + " ms).");
+        } catch (IOException e) {
+            logger.severe("Welt '" + worldName + "' konnte nicht bereinigt werden: " + e.getMessage());
+        }
+    }
+    
+    // Wird in onLoad() aufgerufen, also bevor der Server die Welten lädt.
+    // Normalerweise hat der Offline-Reset im Startskript das schon erledigt.
+    public static void runPendingResets(FarmReset plugin) {
+        Path pendingFile = getPendingFile(plugin);
+        try {
+            PendingResets pending = PendingResets.load(pendingFile);
+            migrateLegacyEntries(plugin, pending);
+            if (pending.isEmpty()) {
+                return;
             }
             
-            String worldName = farm.getSpawnLocation().getWorld().getName();
-            World world = Bukkit.getWorld(worldName);
-            
-            if (world == null) {
-                logger.info("Welt '" + worldName + "' für Farm '" + farmName + "' noch nicht geladen. Erstelle sie...");
-                // Erstelle die Welt, falls sie nicht existiert
-                WorldCreator creator = new WorldCreator(worldName);
-                world = Bukkit.createWorld(creator);
-                
-                if (world == null) {
-                    logger.warning("Konnte Welt '" + worldName + "' nicht erstellen. Versuche es später erneut...");
-                    // Warte 5 Sekunden und versuche es erneut
-                    final String finalFarmName = farmName;
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                        setSpawnForFarm(farm);
-                        java.util.List<String> remainingFarms = new java.util.ArrayList<>(plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart"));
-                        remainingFarms.remove(finalFarmName);
-                        plugin.getConfig().set("farmsToSetSpawnAfterRestart", remainingFarms);
-                        plugin.saveConfig();
-                    }, 100L); // 5 Sekunden = 100 Ticks
-                    continue;
+            plugin.getLogger().info(pending.getWorlds().size() + " Welt(en) wurden nicht vom Offline-Reset bearbeitet, setze sie jetzt zurück...");
+            int threads = plugin.getConfig().getInt("prune.threads", 0);
+            WorldResetEngine engine = new WorldResetEngine(plugin.getServer().getWorldContainer().toPath(),
+                createTemplateStore(plugin), threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), plugin.getLogger());
+            engine.run(pending).forEach(pending::remove);
+            pending.save(pendingFile);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ausstehende Resets konnten nicht bearbeitet werden: " + e.getMessage());
+        }
+    }
+    
+    // Übernimmt Einträge, die ältere Versionen noch in die config.yml geschrieben haben
+    private static void migrateLegacyEntries(FarmReset plugin, PendingResets pending) {
+        List<String> worlds = plugin.getConfig().getStringList("worldsToDeleteOnStartup");
+        ConfigurationSection pruneSection = plugin.getConfig().getConfigurationSection("worldsToPruneOnStartup");
+        if (worlds.isEmpty() && pruneSection == null) {
+            return;
+        }
+        
+        worlds.forEach(pending::markDelete);
+        if (pruneSection != null) {
+            for (String worldName : pruneSection.getKeys(false)) {
+                String value = pruneSection.getString(worldName, "");
+                String[] bounds = value.split(",");
+                try {
+                    if (bounds.length != 4) {
+                        throw new NumberFormatException("4 Werte erwartet");
+                    }
+                    pending.markPrune(worldName, new ChunkArea(Integer.parseInt(bounds[0].trim()), Integer.parseInt(bounds[1].trim()),
+                        Integer.parseInt(bounds[2].trim()), Integer.parseInt(bounds[3].trim())));
+                } catch (NumberFormatException e) {
+                    plugin.getLogger().warning("Ungültiger Eintrag worldsToPruneOnStartup." + worldName + ": '" + value
+                        + "' (" + e.getMessage() + "), wird übersprungen.");
                 }
             }
-            
-            setSpawnForFarm(farm);
-            processedFarms.add(farmName);
+            pending.setPruneSettings(
+                plugin.getConfig().getBoolean("prune.deleteOutsideArea", true),
+                plugin.getConfig().getLong("prune.minInhabitedSeconds", 300) * 20L,
+                plugin.getConfig().getLong("prune.maxIdleDays", 0) * 24000L);
         }
-        
-        // Entferne alle behandelten Farmen aus der Liste
-        farmsToReset.removeAll(processedFarms);
-        plugin.getConfig().set("farmsToSetSpawnAfterRestart", farmsToReset);
+        plugin.getConfig().set("worldsToDeleteOnStartup", null);
+        plugin.getConfig().set("worldsToPruneOnStartup", null);
         plugin.saveConfig();
-        
-        if (!farmsToReset.isEmpty()) {
-            logger.info("Es wurden " + farmsToReset.size() + " Farm(en) für Spawn-Reset markiert (werden später gesetzt).");
-        } else {
-            logger.info("Alle Spawns wurden erfolgreich gesetzt!");
+    }
+    
+    private void markFarmForSpawnReset(String farmName) {
+        java.util.List<String> farmsToReset = plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart");
+        if (!farmsToReset.contains(farmName)) {
+            farmsToReset.add(farmName);
+            plugin.getConfig().set("farmsToSetSpawnAfterRestart", farmsToReset);
+            plugin.saveConfig();
         }
     }
     
-    private void setSpawnForFarm(FarmData farm) {
-        Logger logger = plugin.getLogger();
-        String worldName = farm.getSpawnLocation().getWorld().getName();
-        World world = Bukkit.getWorld(worldName);
+    public boolean isMarkedForSpawnReset(String farmName) {
+        return plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart").contains(farmName);
+    }
+    
+    public FarmData getCurrentManualReset() {
+        return currentManualReset;
+    }
+    
+    // Die Welten werden nicht mehr während onEnable erstellt, sondern nach dem Serverstart nacheinander
+    public void checkAndSetSpawnsAfterRestart() {
+        List<String> farmsToReset = plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart");
         
-        if (world == null) {
-            logger.warning("Welt '" + worldName + "' für Farm '" + farm.getName() + "' nicht gefunden!");
+        if (farmsToReset.isEmpty()) {
+            finishClusterReset();
             return;
         }
         
-        // Setze den Spawn auf die gespeicherte Position
-        Location savedSpawn = farm.getSpawnLocation();
-        Location newSpawn = new Location(world, savedSpawn.getX(), savedSpawn.getY(), savedSpawn.getZ(), 
-                                        savedSpawn.getYaw(), savedSpawn.getPitch());
-        
-        // Stelle sicher, dass die Position sicher ist (Y >= 0)
-        if (newSpawn.getY() < 0) {
-            newSpawn.setY(world.getHighestBlockYAt(newSpawn) + 1);
+        plugin.getResetCoordinator().publishState(ResetState.RECREATING);
+        plugin.getLogger().info(farmsToReset.size() + " Farm-Welt(en) werden nach dem Serverstart neu erstellt...");
+        recreationQueue.enqueue(farmsToReset);
+        recreationQueue.start();
+    }
+    
+    void removeFromSpawnResetList(String farmName) {
+        List<String> farmsToReset = plugin.getConfig().getStringList("farmsToSetSpawnAfterRestart");
+        if (farmsToReset.remove(farmName)) {
+            plugin.getConfig().set("farmsToSetSpawnAfterRestart", farmsToReset);
+            plugin.saveConfig();
         }
-        
-        world.setSpawnLocation(newSpawn);
-        logger.info("Spawn für Farm '" + farm.getName() + "' auf Position gesetzt: " + 
-                   String.format("X: %.1f, Y: %.1f, Z: %.1f", newSpawn.getX(), newSpawn.getY(), newSpawn.getZ()));
     }
-
-    private void deleteDirectory(File directory) {
-        if (directory.exists()) {
-            File[] files = directory.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isDirectory()) {
-                        deleteDirectory(file);
-                    } else {
-                        file.delete();
-                    }
-                }
+    
+    public WorldRecreationQueue getRecreationQueue() {
+        return recreationQueue;
+    }
+    
+    // Gibt den Reset-Lease frei, damit der nächste Server im Netzwerk resetten kann
+    void finishClusterReset() {
+        plugin.getResetEstimator().recordStartup();
+        ResetCoordinator coordinator = plugin.getResetCoordinator();
+        // Dateizugriffe auf das gemeinsame Verzeichnis nicht im Main-Thread
+        scheduler.runAsync(() -> {
+            coordinator.publishState(ResetState.IDLE);
+            if (coordinator.holdsResetLease()) {
+                coordinator.releaseResetLease();
+                plugin.getLogger().info("Reset-Lease freigegeben.");
             }
-            directory.delete();
-        }
+        });
     }
 
-    public void startManualReset(FarmData farm) {
+    // Liefert false, wenn der Reset nicht gestartet werden konnte (läuft bereits, Welt fehlt, Lease belegt)
+    public CompletableFuture<Boolean> startManualReset(FarmData farm) {
         // Prüfe ob bereits ein Reset läuft
-        if (manualResetTask != null && !manualResetTask.isCancelled()) {
+        if (currentManualReset != null) {
             plugin.getLogger().warning("Ein manueller Reset läuft bereits!");
-            return;
+            return CompletableFuture.completedFuture(false);
         }
         
-        currentManualReset = farm;
         World world = farm.getSpawnLocation().getWorld();
-        String worldName = world != null ? world.getName() : null;
-        
-        if (world == null || worldName == null) {
+        if (world == null) {
             plugin.getLogger().warning("Welt für Farm '" + farm.getName() + "' nicht gefunden!");
-            return;
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        if (!canReset(farm)) {
+            plugin.getLogger().warning("Farm '" + farm.getName() + "' kann nicht zurückgesetzt werden: " + FOLIA_RESET_UNSUPPORTED);
+            return CompletableFuture.completedFuture(false);
         }
         
+        // Auch manuelle Resets starten den Server neu und brauchen daher den Reset-Lease.
+        // Die Farm wird sofort eingetragen, damit kein zweiter Reset startet, während der Lease angefordert wird.
+        currentManualReset = farm;
+        String worldName = world.getName();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        scheduler.runAsync(() -> {
+            boolean acquired = plugin.getResetCoordinator().tryAcquireResetLease();
+            scheduler.runGlobal(() -> {
+                if (!acquired) {
+                    plugin.getLogger().warning("Ein anderer Server führt gerade einen Reset durch!");
+                    currentManualReset = null;
+                    result.complete(false);
+                    return;
+                }
+                startCountdown(farm, worldName);
+                result.complete(true);
+            });
+        });
+        return result;
+    }
+    
+    private void startCountdown(FarmData farm, String worldName) {
+        World world = Bukkit.getWorld(worldName);
+        
         // Sende initiale Nachricht
         sendMessageToWorld(world, "§c§l=== FARM RESET ===");
         sendMessageToWorld(world, "§730 Sekunden bis Reset");
         
         // Countdown-Werte: 30, 20, 10, 5, 4, 3, 2
         int[] countdownSeconds = {30, 20, 10, 5, 4, 3, 2, 1};
-        final String finalWorldName = worldName;
         
         for (int seconds : countdownSeconds) {
             final int delay = (30 - seconds) * 20; // Konvertiere Sekunden zu Ticks
             final int sec = seconds;
             
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                World w = Bukkit.getWorld(finalWorldName);
+            countdownTasks.add(scheduler.runGlobalLater(() -> {
+                World w = Bukkit.getWorld(worldName);
                 if (w != null) {
                     if (sec == 3) {
                         // Bei 3 Sekunden alle Spieler kicken
@@ -312,25 +906,36 @@ public class ResetManager {
                         sendMessageToWorld(w, "§c" + sec);
                     }
                 }
-            }, delay);
+            }, delay));
         }
         
         // Führe Reset nach 30 Sekunden durch
-        manualResetTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        manualResetTask = scheduler.runGlobalLater(() -> {
             Logger logger = plugin.getLogger();
-            logger.info("=== Manueller Farm Reset wird durchgeführt ===");
+            currentManualReset = null;
+            manualResetTask = null;
+            countdownTasks.clear();
             
-            World w = Bukkit.getWorld(finalWorldName);
-            if (w != null) {
-                sendMessageToWorld(w, "§c§l=== FARM RESET ===");
-                sendMessageToWorld(w, "§7Die Farm-Welt wird zurückgesetzt...");
-                sendMessageToWorld(w, "§7Der Server wird in 2 Sekunden neugestartet...");
+            World w = Bukkit.getWorld(worldName);
+            if (w == null) {
+                // Welt wurde während des Countdowns entladen, Lease freigeben statt ihn bis zum Ablauf zu halten
+                logger.warning("Welt '" + worldName + "' ist nicht mehr geladen, manueller Reset abgebrochen!");
+                finishClusterReset();
+                return;
             }
             
-            resetFarmWorld(farm, logger);
+            logger.info("=== Manueller Farm Reset wird durchgeführt ===");
+            plugin.getResetCoordinator().publishState(ResetState.RESETTING);
+            sendMessageToWorld(w, "§c§l=== FARM RESET ===");
+            sendMessageToWorld(w, "§7Die Farm-Welt wird zurückgesetzt...");
+            sendMessageToWorld(w, "§7Der Server wird in 2 Sekunden neugestartet...");
             
-            currentManualReset = null;
-            manualResetTask = null;
+            try {
+                resetFarmWorld(farm, logger);
+            } catch (RuntimeException e) {
+                logger.severe("Manueller Reset fehlgeschlagen: " + e.getMessage());
+                finishClusterReset();
+            }
         }, 30 * 20); // 30 Sekunden = 600 Ticks
     }
     
@@ -353,11 +958,12 @@ public class ResetManager {
         
         for (Player player : players) {
             // Teleportiere zu Standard-Welt falls möglich
+            CompletableFuture<Boolean> teleport = CompletableFuture.completedFuture(true);
             if (defaultWorld != null && !defaultWorld.equals(world) && defaultSpawn != null) {
-                player.teleport(defaultSpawn);
+                teleport = scheduler.teleport(player, defaultSpawn);
             }
-            // Kicke den Spieler
-            player.kickPlayer(reason);
+            // Kicke den Spieler im Thread, dem er gehört
+            teleport.whenComplete((ignored, error) -> scheduler.runForEntity(player, () -> player.kickPlayer(reason)));
         }
     }
 
@@ -365,8 +971,20 @@ public class ResetManager {
         if (checkTask != null && !checkTask.isCancelled()) {
             checkTask.cancel();
         }
+        if (offsetTask != null && !offsetTask.isCancelled()) {
+            offsetTask.cancel();
+        }
+        for (FarmTask task : countdownTasks) {
+            task.cancel();
+        }
+        countdownTasks.clear();
         if (manualResetTask != null && !manualResetTask.isCancelled()) {
             manualResetTask.cancel();
+            manualResetTask = null;
+            // Abgebrochener Countdown: Lease sofort freigeben, sonst blockiert er das Netzwerk bis zum Ablauf
+            ResetCoordinator coordinator = plugin.getResetCoordinator();
+            coordinator.publishState(ResetState.IDLE);
+            coordinator.releaseResetLease();
         }
     }
 }
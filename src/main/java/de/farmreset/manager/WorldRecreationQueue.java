@@ -0,0 +1,215 @@
+package de.farmreset.manager;
+
+import de.farmreset.FarmReset;
+import de.farmreset.api.event.FarmWorldReadyEvent;
+import de.farmreset.models.FarmData;
+import de.farmreset.models.FarmRecord;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Erstellt die Farm-Welten nach einem Reset-Neustart erst, wenn der Server fertig gestartet ist,
+ * und zwar eine Welt nach der anderen. Bis eine Welt fertig ist, bleibt sie für Spieler gesperrt.
+ */
+public class WorldRecreationQueue {
+
+    private final FarmReset plugin;
+    private final ResetManager resetManager;
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    // Welten, die noch erstellt werden und deshalb nicht betreten werden dürfen
+    private final Set<String> closedWorlds = ConcurrentHashMap.newKeySet();
+    private int total;
+    private int completed;
+    private boolean running;
+
+    public WorldRecreationQueue(FarmReset plugin, ResetManager resetManager) {
+        this.plugin = plugin;
+        this.resetManager = resetManager;
+    }
+
+    public void enqueue(List<String> farmNames) {
+        for (String farmName : farmNames) {
+            String worldName = getWorldName(farmName);
+            if (worldName == null) {
+                plugin.getLogger().warning("Farm '" + farmName + "' nicht gefunden, entferne aus Reset-Liste!");
+                resetManager.removeFromSpawnResetList(farmName);
+                continue;
+            }
+            if (!pending.contains(farmName)) {
+                pending.add(farmName);
+                closedWorlds.add(worldName);
+                total++;
+            }
+        }
+    }
+
+    // Geplante Tasks laufen erst, wenn der Server vollständig gestartet ist
+    public void start() {
+        if (running || pending.isEmpty()) {
+            if (!running) {
+                resetManager.finishClusterReset();
+            }
+            return;
+        }
+        running = true;
+        plugin.getTaskScheduler().runGlobalLater(this::processNext, plugin.getConfig().getLong("recreation.startDelayTicks", 20));
+    }
+
+    public boolean isClosed(String worldName) {
+        return closedWorlds.contains(worldName);
+    }
+
+    public int getRemaining() {
+        return pending.size();
+    }
+
+    private void processNext() {
+        String farmName = pending.poll();
+        if (farmName == null) {
+            finish();
+            return;
+        }
+
+        Logger logger = plugin.getLogger();
+        String worldName = getWorldName(farmName);
+        if (worldName == null) {
+            resetManager.removeFromSpawnResetList(farmName);
+            scheduleNext();
+            return;
+        }
+
+        World world = Bukkit.getWorld(worldName);
+        long start = System.currentTimeMillis();
+
+        if (world == null && plugin.getTaskScheduler().isFolia()) {
+            // Folia unterstützt kein Erstellen von Welten zur Laufzeit
+            logger.warning("Welt '" + worldName + "' für Farm '" + farmName + "' ist nicht geladen und kann unter Folia nicht erstellt werden!");
+            giveUp(farmName, worldName);
+            return;
+        }
+
+        if (world == null) {
+            logger.info("Erstelle Welt '" + worldName + "' für Farm '" + farmName + "' [" + (completed + 1) + "/" + total + "]...");
+            world = Bukkit.createWorld(new WorldCreator(worldName));
+
+            if (world == null) {
+                int attempt = attempts.merge(farmName, 1, Integer::sum);
+                int maxAttempts = plugin.getConfig().getInt("recreation.maxAttempts", 3);
+                if (attempt >= maxAttempts) {
+                    logger.severe("Konnte Welt '" + worldName + "' nach " + attempt + " Versuchen nicht erstellen!");
+                    giveUp(farmName, worldName);
+                    return;
+                }
+                // Später erneut versuchen, mit wachsender Wartezeit
+                long delay = 100L << (attempt - 1);
+                logger.warning("Konnte Welt '" + worldName + "' nicht erstellen. Neuer Versuch in " + (delay / 20) + " Sekunden...");
+                pending.addLast(farmName);
+                plugin.getTaskScheduler().runGlobalLater(this::processNext, delay);
+                return;
+            }
+        }
+
+        plugin.getDataManager().resolveFarms(world);
+        FarmData farm = plugin.getDataManager().getFarm(farmName);
+        if (farm == null) {
+            markReady(farmName, world, start);
+            return;
+        }
+
+        plugin.getBorderManager().applyBorder(farm, world);
+        // Welt erst freigeben, wenn der Spawn wirklich gesetzt ist
+        World createdWorld = world;
+        setSpawnForFarm(farm, world, () -> markReady(farmName, createdWorld, start));
+    }
+
+    private void markReady(String farmName, World world, long start) {
+        String worldName = world.getName();
+        resetManager.removeFromSpawnResetList(farmName);
+        // Weitere Farmen derselben Welt halten sie geschlossen, bis auch ihr Spawn gesetzt ist
+        if (pending.stream().noneMatch(name -> worldName.equals(getWorldName(name)))) {
+            closedWorlds.remove(worldName);
+        }
+        completed++;
+        reportProgress("§aFarm-Welt '§e" + worldName + "§a' ist bereit [" + completed + "/" + total + "] ("
+            + (System.currentTimeMillis() - start) + " ms)");
+        Bukkit.getPluginManager().callEvent(new FarmWorldReadyEvent(farmName, world));
+        scheduleNext();
+    }
+
+    private void giveUp(String farmName, String worldName) {
+        resetManager.removeFromSpawnResetList(farmName);
+        closedWorlds.remove(worldName);
+        completed++;
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        plugin.getTaskScheduler().runGlobalLater(this::processNext, plugin.getConfig().getLong("recreation.intervalTicks", 20));
+    }
+
+    private void finish() {
+        running = false;
+        attempts.clear();
+        reportProgress("§aAlle Farm-Welten wurden neu erstellt!");
+        total = 0;
+        completed = 0;
+        resetManager.finishClusterReset();
+    }
+
+    private void reportProgress(String message) {
+        plugin.getLogger().info(message.replaceAll("§.", ""));
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission("farmreset.admin")) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    private String getWorldName(String farmName) {
+        FarmData farm = plugin.getDataManager().getFarm(farmName);
+        if (farm != null && farm.getSpawnLocation().getWorld() != null) {
+            return farm.getSpawnLocation().getWorld().getName();
+        }
+        FarmRecord record = plugin.getDataManager().getUnresolvedFarm(farmName);
+        return record != null ? record.getWorldName() : null;
+    }
+
+    private void setSpawnForFarm(FarmData farm, World world, Runnable onDone) {
+        Logger logger = plugin.getLogger();
+
+        // Setze den Spawn auf die gespeicherte Position
+        Location savedSpawn = farm.getSpawnLocation();
+        Location newSpawn = new Location(world, savedSpawn.getX(), savedSpawn.getY(), savedSpawn.getZ(),
+                                        savedSpawn.getYaw(), savedSpawn.getPitch());
+
+        // Blockzugriffe müssen auf Folia im Thread der Region laufen
+        plugin.getTaskScheduler().runAtLocation(newSpawn, () -> {
+            try {
+                // Stelle sicher, dass die Position sicher ist (Y >= 0)
+                if (newSpawn.getY() < 0) {
+                    newSpawn.setY(world.getHighestBlockYAt(newSpawn) + 1);
+                }
+
+                world.setSpawnLocation(newSpawn);
+                logger.info("Spawn für Farm '" + farm.getName() + "' auf Position gesetzt: " +
+                           String.format("X: %.1f, Y: %.1f, Z: %.1f", newSpawn.getX(), newSpawn.getY(), newSpawn.getZ()));
+            } finally {
+                // Die Warteschlange läuft auf dem globalen Thread weiter, auch wenn das Setzen fehlschlägt
+                plugin.getTaskScheduler().runGlobal(onDone);
+            }
+        });
+    }
+}
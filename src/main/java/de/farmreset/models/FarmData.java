@@ -31,5 +31,46 @@ public class FarmData {
     public Location getPos2() {
         return pos2;
     }
+
+    public int getMinBlockX() {
+        return Math.min(pos1.getBlockX(), pos2.getBlockX());
+    }
+
+    public int getMinBlockY() {
+        return Math.min(pos1.getBlockY(), pos2.getBlockY());
+    }
+
+    public int getMinBlockZ() {
+        return Math.min(pos1.getBlockZ(), pos2.getBlockZ());
+    }
+
+    public int getMaxBlockX() {
+        return Math.max(pos1.getBlockX(), pos2.getBlockX());
+    }
+
+    public int getMaxBlockY() {
+        return Math.max(pos1.getBlockY(), pos2.getBlockY());
+    }
+
+    public int getMaxBlockZ() {
+        return Math.max(pos1.getBlockZ(), pos2.getBlockZ());
+    }
+
+    // Größe des Quaders in Blöcken (beide Eckpunkte eingeschlossen)
+    public int getSizeX() {
+        return getMaxBlockX() - getMinBlockX() + 1;
+    }
+
+    public int getSizeY() {
+        return getMaxBlockY() - getMinBlockY() + 1;
+    }
+
+    public int getSizeZ() {
+        return getMaxBlockZ() - getMinBlockZ() + 1;
+    }
+
+    public long getVolume() {
+        return (long) getSizeX() * getSizeY() * getSizeZ();
+    }
 }
 
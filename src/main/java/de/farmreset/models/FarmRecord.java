@@ -0,0 +1,88 @@
+package de.farmreset.models;
+
+// Rohdaten einer Farm ohne Bezug zu einer geladenen Welt (aus farms.yml oder dem Binär-Index)
+public class FarmRecord {
+
+    private final String name;
+    private final String worldName;
+    private final double spawnX;
+    private final double spawnY;
+    private final double spawnZ;
+    private final float yaw;
+    private final float pitch;
+    private final double pos1X;
+    private final double pos1Y;
+    private final double pos1Z;
+    private final double pos2X;
+    private final double pos2Y;
+    private final double pos2Z;
+
+    public FarmRecord(String name, String worldName, double spawnX, double spawnY, double spawnZ, float yaw, float pitch,
+                      double pos1X, double pos1Y, double pos1Z, double pos2X, double pos2Y, double pos2Z) {
+        this.name = name;
+        this.worldName = worldName;
+        this.spawnX = spawnX;
+        this.spawnY = spawnY;
+        this.spawnZ = spawnZ;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.pos1X = pos1X;
+        this.pos1Y = pos1Y;
+        this.pos1Z = pos1Z;
+        this.pos2X = pos2X;
+        this.pos2Y = pos2Y;
+        this.pos2Z = pos2Z;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public double getSpawnX() {
+        return spawnX;
+    }
+
+    public double getSpawnY() {
+        return spawnY;
+    }
+
+    public double getSpawnZ() {
+        return spawnZ;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+
+    public double getPos1X() {
+        return pos1X;
+    }
+
+    public double getPos1Y() {
+        return pos1Y;
+    }
+
+    public double getPos1Z() {
+        return pos1Z;
+    }
+
+    public double getPos2X() {
+        return pos2X;
+    }
+
+    public double getPos2Y() {
+        return pos2Y;
+    }
+
+    public double getPos2Z() {
+        return pos2Z;
+    }
+}
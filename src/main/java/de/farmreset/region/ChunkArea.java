@@ -0,0 +1,43 @@
+package de.farmreset.region;
+
+// Rechteckiger Bereich in Chunk-Koordinaten (Grenzen inklusive)
+public class ChunkArea {
+
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+
+    public ChunkArea(int minX, int minZ, int maxX, int maxZ) {
+        this.minX = Math.min(minX, maxX);
+        this.minZ = Math.min(minZ, maxZ);
+        this.maxX = Math.max(minX, maxX);
+        this.maxZ = Math.max(minZ, maxZ);
+    }
+
+    // Bereich aus Blockkoordinaten plus Rand in Chunks
+    public static ChunkArea fromBlocks(int minBlockX, int minBlockZ, int maxBlockX, int maxBlockZ, int marginChunks) {
+        return new ChunkArea((minBlockX >> 4) - marginChunks, (minBlockZ >> 4) - marginChunks,
+            (maxBlockX >> 4) + marginChunks, (maxBlockZ >> 4) + marginChunks);
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return chunkX >= minX && chunkX <= maxX && chunkZ >= minZ && chunkZ <= maxZ;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
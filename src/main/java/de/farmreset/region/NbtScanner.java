@@ -0,0 +1,140 @@
+package de.farmreset.region;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimaler NBT-Leser, der nur einzelne Long-Werte heraussucht und alles andere überspringt.
+ * Gesucht wird in der Wurzel und eine Ebene tiefer (z.B. "Level" bei alten Chunks oder "Data" in level.dat).
+ */
+public final class NbtScanner {
+
+    private static final int TAG_END = 0;
+    private static final int TAG_BYTE = 1;
+    private static final int TAG_SHORT = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_INT_ARRAY = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    private NbtScanner() {
+    }
+
+    public static Map<String, Long> findLongs(DataInput in, Set<String> names) throws IOException {
+        Map<String, Long> result = new HashMap<>();
+        try {
+            if (in.readByte() != TAG_COMPOUND) {
+                return result;
+            }
+            skipString(in);
+            scanCompound(in, names, result, 0);
+        } catch (FoundAll | EOFException ignored) {
+            // FoundAll: vorzeitig fertig, EOF: abgeschnittene Daten, bisherige Werte verwenden
+        }
+        return result;
+    }
+
+    private static void scanCompound(DataInput in, Set<String> names, Map<String, Long> result, int depth) throws IOException {
+        while (true) {
+            int type = in.readByte();
+            if (type == TAG_END) {
+                return;
+            }
+            String name = in.readUTF();
+            if (type == TAG_LONG && names.contains(name)) {
+                result.put(name, in.readLong());
+                if (result.size() == names.size()) {
+                    // Alles gefunden, den Rest nicht mehr lesen
+                    throw new FoundAll();
+                }
+            } else if (type == TAG_COMPOUND && depth == 0) {
+                scanCompound(in, names, result, depth + 1);
+            } else {
+                skipPayload(in, type);
+            }
+        }
+    }
+
+    private static void skipPayload(DataInput in, int type) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                skip(in, 1);
+                break;
+            case TAG_SHORT:
+                skip(in, 2);
+                break;
+            case TAG_INT:
+            case TAG_FLOAT:
+                skip(in, 4);
+                break;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                skip(in, 8);
+                break;
+            case TAG_BYTE_ARRAY:
+                skip(in, in.readInt());
+                break;
+            case TAG_STRING:
+                skipString(in);
+                break;
+            case TAG_LIST: {
+                int elementType = in.readByte();
+                int length = in.readInt();
+                for (int i = 0; i < length; i++) {
+                    skipPayload(in, elementType);
+                }
+                break;
+            }
+            case TAG_COMPOUND:
+                while (true) {
+                    int childType = in.readByte();
+                    if (childType == TAG_END) {
+                        break;
+                    }
+                    skipString(in);
+                    skipPayload(in, childType);
+                }
+                break;
+            case TAG_INT_ARRAY:
+                skip(in, in.readInt() * 4L);
+                break;
+            case TAG_LONG_ARRAY:
+                skip(in, in.readInt() * 8L);
+                break;
+            default:
+                throw new IOException("Unbekannter NBT-Typ: " + type);
+        }
+    }
+
+    private static void skipString(DataInput in) throws IOException {
+        skip(in, in.readUnsignedShort());
+    }
+
+    private static void skip(DataInput in, long bytes) throws IOException {
+        while (bytes > 0) {
+            int skipped = in.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static class FoundAll extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private FoundAll() {
+            super(null, null, false, false);
+        }
+    }
+}
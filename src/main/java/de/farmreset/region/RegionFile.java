@@ -0,0 +1,222 @@
+package de.farmreset.region;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Zugriff auf Anvil-Regiondateien (.mca) ohne Server.
+ * Die ersten 4096 Bytes enthalten je Chunk Offset und Länge in 4-KiB-Sektoren,
+ * die nächsten 4096 Bytes die Zeitstempel der letzten Speicherung.
+ */
+public class RegionFile {
+
+    public static final int CHUNKS = 1024;
+    public static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+    private static final int EXTERNAL_FLAG = 0x80;
+    private static final Pattern NAME_PATTERN = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+
+    private final Path path;
+    private final int regionX;
+    private final int regionZ;
+    private final int[] locations = new int[CHUNKS];
+    private final int[] timestamps = new int[CHUNKS];
+
+    private RegionFile(Path path, int regionX, int regionZ) {
+        this.path = path;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+    }
+
+    // Liefert null für Dateien, die keine Regiondatei sind
+    public static RegionFile open(Path path) throws IOException {
+        Matcher matcher = NAME_PATTERN.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+        RegionFile region = new RegionFile(path, Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        region.readHeader();
+        return region;
+    }
+
+    private void readHeader() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // weiterlesen bis der Header vollständig ist
+            }
+            header.flip();
+            for (int i = 0; i < CHUNKS; i++) {
+                locations[i] = header.getInt();
+            }
+            for (int i = 0; i < CHUNKS; i++) {
+                timestamps[i] = header.getInt();
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean hasChunk(int index) {
+        return locations[index] != 0;
+    }
+
+    public int getChunkX(int index) {
+        return regionX * 32 + (index & 31);
+    }
+
+    public int getChunkZ(int index) {
+        return regionZ * 32 + (index >> 5);
+    }
+
+    public int getChunkCount() {
+        int count = 0;
+        for (int location : locations) {
+            if (location != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Entpackte NBT-Daten eines Chunks, oder null wenn das Format nicht unterstützt wird (z.B. LZ4)
+    public DataInputStream readChunk(FileChannel channel, int index) throws IOException {
+        byte[] raw = readRaw(channel, index);
+        if (raw == null || raw.length < 5) {
+            return null;
+        }
+        int length = ByteBuffer.wrap(raw, 0, 4).getInt();
+        int compression = raw[4] & 0xFF;
+
+        InputStream data;
+        if ((compression & EXTERNAL_FLAG) != 0) {
+            Path external = getExternalFile(index);
+            if (!Files.exists(external)) {
+                return null;
+            }
+            data = Files.newInputStream(external);
+            compression &= ~EXTERNAL_FLAG;
+        } else {
+            data = new ByteArrayInputStream(raw, 5, Math.max(0, Math.min(length - 1, raw.length - 5)));
+        }
+
+        switch (compression) {
+            case 1:
+                return new DataInputStream(new BufferedInputStream(new GZIPInputStream(data)));
+            case 2:
+                return new DataInputStream(new BufferedInputStream(new InflaterInputStream(data)));
+            case 3:
+                return new DataInputStream(new BufferedInputStream(data));
+            default:
+                data.close();
+                return null;
+        }
+    }
+
+    private byte[] readRaw(FileChannel channel, int index) throws IOException {
+        int location = locations[index];
+        long offset = (long) (location >>> 8) * SECTOR_SIZE;
+        int sectors = location & 0xFF;
+        if (location == 0 || sectors == 0 || offset < HEADER_SIZE || offset + (long) sectors * SECTOR_SIZE > channel.size()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(sectors * SECTOR_SIZE);
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+            // weiterlesen bis alle Sektoren gelesen sind
+        }
+        return buffer.array();
+    }
+
+    private Path getExternalFile(int index) {
+        return path.resolveSibling("c." + getChunkX(index) + "." + getChunkZ(index) + ".mcc");
+    }
+
+    /**
+     * Schreibt die Datei neu und behält nur die angegebenen Chunks. Die verbleibenden
+     * Chunks werden lückenlos hintereinander gelegt, damit der Platz wirklich frei wird.
+     * Bleibt kein Chunk übrig, wird die Datei gelöscht. Liefert die neue Dateigröße.
+     * Lässt sich ein zu behaltender Chunk nicht lesen, bleibt die Datei unverändert.
+     */
+    public long compact(Set<Integer> keep) throws IOException {
+        if (keep.isEmpty()) {
+            deleteExternalFiles(keep);
+            Files.deleteIfExists(path);
+            return 0L;
+        }
+
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        boolean written = false;
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            int nextSector = HEADER_SIZE / SECTOR_SIZE;
+            long position = HEADER_SIZE;
+
+            for (int i = 0; i < CHUNKS; i++) {
+                if (!keep.contains(i)) {
+                    header.putInt(i * 4, 0);
+                    header.putInt(SECTOR_SIZE + i * 4, 0);
+                    continue;
+                }
+                byte[] raw = readRaw(source, i);
+                if (raw == null) {
+                    // Ohne diesen Chunk würde er stillschweigend verloren gehen
+                    throw new IOException("Chunk " + getChunkX(i) + "," + getChunkZ(i) + " in " + path.getFileName()
+                        + " ist nicht lesbar, Datei wird nicht verändert");
+                }
+                int sectors = raw.length / SECTOR_SIZE;
+                ByteBuffer data = ByteBuffer.wrap(raw);
+                while (data.hasRemaining()) {
+                    position += target.write(data, position);
+                }
+                header.putInt(i * 4, (nextSector << 8) | sectors);
+                header.putInt(SECTOR_SIZE + i * 4, timestamps[i]);
+                nextSector += sectors;
+            }
+
+            header.rewind();
+            long headerPosition = 0;
+            while (header.hasRemaining()) {
+                headerPosition += target.write(header, headerPosition);
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deleteExternalFiles(keep);
+        return Files.size(path);
+    }
+
+    // Ausgelagerte Chunks (.mcc) der entfernten Chunks löschen
+    private void deleteExternalFiles(Set<Integer> keep) throws IOException {
+        for (int i = 0; i < CHUNKS; i++) {
+            if (locations[i] != 0 && !keep.contains(i)) {
+                Files.deleteIfExists(getExternalFile(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package de.farmreset.region;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Entfernt kaum besuchte Chunks aus einer (entladenen) Welt, statt die ganze Welt zu löschen.
+ * Ein Chunk wird gelöscht, wenn er außerhalb des Farm-Bereichs liegt oder seine InhabitedTime
+ * unter dem Schwellwert liegt bzw. er zu lange nicht mehr gespeichert wurde. Entities- und
+ * POI-Dateien derselben Region werden passend dazu bereinigt.
+ */
+public class RegionPruner {
+
+    private static final Set<String> CHUNK_KEYS = Set.of("InhabitedTime", "LastUpdate");
+    private static final String[] DIMENSIONS = {"", "DIM-1", "DIM1"};
+
+    private final ChunkArea area;
+    private final boolean deleteOutsideArea;
+    private final long minInhabitedTicks;
+    private final long maxIdleTicks;
+    private final int threads;
+    private final Logger logger;
+
+    public RegionPruner(ChunkArea area, boolean deleteOutsideArea, long minInhabitedTicks, long maxIdleTicks,
+                        int threads, Logger logger) {
+        this.area = area;
+        this.deleteOutsideArea = deleteOutsideArea;
+        this.minInhabitedTicks = minInhabitedTicks;
+        this.maxIdleTicks = maxIdleTicks;
+        this.threads = Math.max(1, threads);
+        this.logger = logger;
+    }
+
+    public Result prune(Path worldFolder) throws IOException {
+        long worldTime = readWorldTime(worldFolder.resolve("level.dat"));
+        List<Path> regionFiles = new ArrayList<>();
+        for (String dimension : DIMENSIONS) {
+            Path dimensionFolder = dimension.isEmpty() ? worldFolder : worldFolder.resolve(dimension);
+            collectRegionFiles(dimensionFolder.resolve("region"), regionFiles);
+        }
+
+        Result result = new Result();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // Jede Regiondatei ist unabhängig und wird parallel bearbeitet
+            pool.submit(() -> regionFiles.parallelStream().forEach(file -> {
+                try {
+                    pruneRegion(file, worldTime, result);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Konnte Regiondatei " + file + " nicht bereinigen: " + e.getMessage());
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bereinigung unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Bereinigung fehlgeschlagen", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    private void pruneRegion(Path file, long worldTime, Result result) throws IOException {
+        RegionFile region = RegionFile.open(file);
+        if (region == null) {
+            return;
+        }
+
+        long sizeBefore = Files.size(file);
+        Set<Integer> keep = new HashSet<>();
+        int present = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < RegionFile.CHUNKS; i++) {
+                if (!region.hasChunk(i)) {
+                    continue;
+                }
+                present++;
+                if (shouldKeep(region, channel, i, worldTime)) {
+                    keep.add(i);
+                }
+            }
+        }
+
+        result.chunksScanned.addAndGet(present);
+        result.regionFiles.incrementAndGet();
+        result.bytesBefore.addAndGet(sizeBefore);
+
+        if (keep.size() == present) {
+            result.bytesAfter.addAndGet(sizeBefore);
+            return;
+        }
+
+        result.chunksDeleted.addAndGet(present - keep.size());
+        result.bytesAfter.addAndGet(region.compact(keep));
+
+        // Entities und POI gehören zu denselben Chunks und werden ebenfalls bereinigt
+        Path dimensionFolder = file.getParent().getParent();
+        for (String folder : new String[]{"entities", "poi"}) {
+            Path companion = dimensionFolder.resolve(folder).resolve(file.getFileName());
+            if (!Files.exists(companion)) {
+                continue;
+            }
+            RegionFile companionRegion = RegionFile.open(companion);
+            long companionBefore = Files.size(companion);
+            Set<Integer> companionKeep = new HashSet<>();
+            for (int i = 0; i < RegionFile.CHUNKS; i++) {
+                if (companionRegion.hasChunk(i) && keep.contains(i)) {
+                    companionKeep.add(i);
+                }
+            }
+            if (companionKeep.size() != companionRegion.getChunkCount()) {
+                long companionAfter = companionRegion.compact(companionKeep);
+                result.bytesBefore.addAndGet(companionBefore);
+                result.bytesAfter.addAndGet(companionAfter);
+            }
+        }
+    }
+
+    private boolean shouldKeep(RegionFile region, FileChannel channel, int index, long worldTime) throws IOException {
+        boolean inside = area == null || area.contains(region.getChunkX(index), region.getChunkZ(index));
+        if (!inside && deleteOutsideArea) {
+            return false;
+        }
+        if (minInhabitedTicks <= 0 && maxIdleTicks <= 0) {
+            return true;
+        }
+
+        Map<String, Long> values;
+        try (DataInputStream in = region.readChunk(channel, index)) {
+            if (in == null) {
+                // Nicht lesbares Format (z.B. LZ4): im Zweifel behalten
+                return true;
+            }
+            values = NbtScanner.findLongs(in, CHUNK_KEYS);
+        } catch (IOException e) {
+            return true;
+        }
+
+        Long inhabited = values.get("InhabitedTime");
+        if (minInhabitedTicks > 0 && inhabited != null && inhabited < minInhabitedTicks) {
+            return false;
+        }
+        Long lastUpdate = values.get("LastUpdate");
+        if (maxIdleTicks > 0 && worldTime > 0 && lastUpdate != null && worldTime - lastUpdate > maxIdleTicks) {
+            return false;
+        }
+        return true;
+    }
+
+    private void collectRegionFiles(Path folder, List<Path> files) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "r.*.mca")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+    }
+
+    // Aktuelle Spielzeit aus level.dat (Data.Time), 0 wenn nicht lesbar
+    private long readWorldTime(Path levelDat) {
+        if (!Files.exists(levelDat)) {
+            return 0L;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(levelDat)))) {
+            Long time = NbtScanner.findLongs(in, Set.of("Time")).get("Time");
+            return time != null ? time : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    public static class Result {
+        private final AtomicLong regionFiles = new AtomicLong();
+        private final AtomicLong chunksScanned = new AtomicLong();
+        private final AtomicLong chunksDeleted = new AtomicLong();
+        private final AtomicLong bytesBefore = new AtomicLong();
+        private final AtomicLong bytesAfter = new AtomicLong();
+
+        public long getRegionFiles() {
+            return regionFiles.get();
+        }
+
+        public long getChunksScanned() {
+            return chunksScanned.get();
+        }
+
+        public long getChunksDeleted() {
+            return chunksDeleted.get();
+        }
+
+        public long getBytesBefore() {
+            return bytesBefore.get();
+        }
+
+        public long getBytesAfter() {
+            return bytesAfter.get();
+        }
+    }
+}
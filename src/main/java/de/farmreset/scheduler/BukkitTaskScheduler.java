@@ -0,0 +1,79 @@
+package de.farmreset.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.CompletableFuture;
+
+// Klassischer Bukkit-Scheduler: alles außer Async-Tasks läuft auf dem Main-Thread
+public class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    public BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isFolia() {
+        return false;
+    }
+
+    @Override
+    public FarmTask runGlobal(Runnable task) {
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    @Override
+    public FarmTask runGlobalLater(Runnable task, long delay) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delay));
+    }
+
+    @Override
+    public FarmTask runGlobalTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period));
+    }
+
+    @Override
+    public FarmTask runAsync(Runnable task) {
+        return wrap(Bukkit.getScheduler().runTaskAsynchronously(plugin, task));
+    }
+
+    @Override
+    public FarmTask runAsyncTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delay, period));
+    }
+
+    @Override
+    public FarmTask runAtLocation(Location location, Runnable task) {
+        return runGlobal(task);
+    }
+
+    @Override
+    public FarmTask runForEntity(Entity entity, Runnable task) {
+        return runGlobal(task);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> teleport(Entity entity, Location location) {
+        // Synchron teleportieren, damit die Welt direkt danach entladen werden kann
+        return CompletableFuture.completedFuture(entity.teleport(location));
+    }
+
+    private FarmTask wrap(BukkitTask task) {
+        return new FarmTask() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
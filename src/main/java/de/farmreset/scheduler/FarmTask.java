@@ -0,0 +1,9 @@
+package de.farmreset.scheduler;
+
+// Gemeinsamer Handle für Bukkit- und Folia-Tasks
+public interface FarmTask {
+
+    void cancel();
+
+    boolean isCancelled();
+}
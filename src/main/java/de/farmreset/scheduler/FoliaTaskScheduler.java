@@ -0,0 +1,93 @@
+package de.farmreset.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Regionalisierte Scheduler von Paper/Folia (Global-Region, Region, Entity und Async)
+public class FoliaTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    public FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public static boolean isSupported() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isFolia() {
+        return true;
+    }
+
+    @Override
+    public FarmTask runGlobal(Runnable task) {
+        return wrap(Bukkit.getGlobalRegionScheduler().run(plugin, scheduled -> task.run()));
+    }
+
+    @Override
+    public FarmTask runGlobalLater(Runnable task, long delay) {
+        // Folia erlaubt keine Verzögerung von 0 Ticks
+        return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduled -> task.run(), Math.max(1L, delay)));
+    }
+
+    @Override
+    public FarmTask runGlobalTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(), Math.max(1L, delay), period));
+    }
+
+    @Override
+    public FarmTask runAsync(Runnable task) {
+        return wrap(Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run()));
+    }
+
+    @Override
+    public FarmTask runAsyncTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+            delay * 50L, period * 50L, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public FarmTask runAtLocation(Location location, Runnable task) {
+        return wrap(Bukkit.getRegionScheduler().run(plugin, location, scheduled -> task.run()));
+    }
+
+    @Override
+    public FarmTask runForEntity(Entity entity, Runnable task) {
+        // null, wenn das Entity bereits entfernt wurde (z.B. Spieler hat den Server verlassen)
+        return wrap(entity.getScheduler().run(plugin, scheduled -> task.run(), null));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> teleport(Entity entity, Location location) {
+        return entity.teleportAsync(location);
+    }
+
+    private FarmTask wrap(ScheduledTask task) {
+        return new FarmTask() {
+            @Override
+            public void cancel() {
+                if (task != null) {
+                    task.cancel();
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task == null || task.isCancelled();
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package de.farmreset.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Führt Tasks auf dem passenden Thread aus. Auf Folia gibt es keinen einzelnen
+ * Main-Thread mehr: globale Aufgaben laufen auf dem Global-Region-Thread,
+ * Welt- und Spieleränderungen auf dem Thread der zuständigen Region.
+ * Alle Zeitangaben sind in Ticks.
+ */
+public interface TaskScheduler {
+
+    boolean isFolia();
+
+    FarmTask runGlobal(Runnable task);
+
+    FarmTask runGlobalLater(Runnable task, long delay);
+
+    FarmTask runGlobalTimer(Runnable task, long delay, long period);
+
+    FarmTask runAsync(Runnable task);
+
+    FarmTask runAsyncTimer(Runnable task, long delay, long period);
+
+    FarmTask runAtLocation(Location location, Runnable task);
+
+    FarmTask runForEntity(Entity entity, Runnable task);
+
+    CompletableFuture<Boolean> teleport(Entity entity, Location location);
+}
@@ -0,0 +1,147 @@
+package de.farmreset.storage;
+
+import de.farmreset.models.FarmRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Binärer Index von farms.yml für schnelles Laden beim Start.
+ * farms.yml bleibt die bearbeitbare Quelle, der Index merkt sich Größe und
+ * Änderungszeit der YAML-Datei und gilt als veraltet, sobald diese nicht mehr passen.
+ *
+ * Aufbau:
+ *   int magic, int version, long yamlSize, long yamlModified, int count
+ *   int[count] Offsets der Einträge
+ *   je Eintrag: Name, Welt (je short Länge + UTF-8), 3 double Spawn, 2 float Yaw/Pitch, 6 double pos1/pos2
+ */
+public final class FarmIndex {
+
+    private static final int MAGIC = 0x46524958; // "FRIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+
+    private FarmIndex() {
+    }
+
+    // Liefert null, wenn der Index fehlt, beschädigt ist oder nicht mehr zur YAML-Datei passt
+    public static List<FarmRecord> read(Path indexFile, Path yamlFile) throws IOException {
+        if (!Files.exists(indexFile) || !Files.exists(yamlFile)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            // Bewusst kein mmap: eine gemappte Datei bleibt unter Windows bis zur GC gesperrt
+            // und der nächste write() könnte sie nicht ersetzen
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // weiterlesen bis die ganze Datei im Puffer ist
+            }
+            if (buffer.hasRemaining()) {
+                return null;
+            }
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            if (buffer.getLong(8) != Files.size(yamlFile)
+                || buffer.getLong(16) != Files.getLastModifiedTime(yamlFile).toMillis()) {
+                return null;
+            }
+
+            int count = buffer.getInt(24);
+            // Einträge sind über die Offset-Tabelle unabhängig voneinander und werden parallel dekodiert
+            return IntStream.range(0, count).parallel()
+                .mapToObj(i -> decode(buffer.duplicate(), buffer.getInt(HEADER_SIZE + i * 4)))
+                .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            // Abgeschnittener oder beschädigter Index (z.B. BufferUnderflowException), wird aus der YAML neu erzeugt
+            return null;
+        }
+    }
+
+    public static void write(Path indexFile, Path yamlFile, List<FarmRecord> records) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        int[] offsets = new int[records.size()];
+        int bodyStart = HEADER_SIZE + records.size() * 4;
+
+        for (int i = 0; i < records.size(); i++) {
+            FarmRecord record = records.get(i);
+            offsets[i] = bodyStart + out.size();
+            writeString(out, record.getName());
+            writeString(out, record.getWorldName());
+            out.writeDouble(record.getSpawnX());
+            out.writeDouble(record.getSpawnY());
+            out.writeDouble(record.getSpawnZ());
+            out.writeFloat(record.getYaw());
+            out.writeFloat(record.getPitch());
+            out.writeDouble(record.getPos1X());
+            out.writeDouble(record.getPos1Y());
+            out.writeDouble(record.getPos1Z());
+            out.writeDouble(record.getPos2X());
+            out.writeDouble(record.getPos2Y());
+            out.writeDouble(record.getPos2Z());
+        }
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(bodyStart);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(Files.size(yamlFile));
+        header.putLong(Files.getLastModifiedTime(yamlFile).toMillis());
+        header.putInt(records.size());
+        for (int offset : offsets) {
+            header.putInt(offset);
+        }
+        header.flip();
+
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(body.toByteArray())});
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FarmRecord decode(ByteBuffer buffer, int offset) {
+        buffer.position(offset);
+        String name = readString(buffer);
+        String worldName = readString(buffer);
+        if (worldName.isEmpty()) {
+            worldName = null;
+        }
+        return new FarmRecord(name, worldName,
+            buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+            buffer.getFloat(), buffer.getFloat(),
+            buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+            buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    // null (z.B. fehlende spawn.world) wird als leerer String gespeichert
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,153 @@
+package de.farmreset.storage;
+
+import de.farmreset.region.ChunkArea;
+import de.farmreset.region.RegionPruner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Welten, deren Dateien erst vor dem nächsten Serverstart zurückgesetzt werden.
+ * Wird vom Plugin geschrieben und vom Offline-Reset (oder als Fallback in onLoad) abgearbeitet,
+ * deshalb als einfache Properties-Datei ohne Bukkit-Abhängigkeit.
+ *
+ * Aufbau:
+ *   world.<name>=DELETE, RESTORE (Vorlage gleichen Namens) oder PRUNE:minX,minZ,maxX,maxZ (Chunk-Koordinaten)
+ *   prune.deleteOutsideArea, prune.minInhabitedTicks, prune.maxIdleTicks
+ */
+public class PendingResets {
+
+    public static final String FILE_NAME = "pending-resets.properties";
+    private static final String WORLD_PREFIX = "world.";
+
+    public enum Action {
+        DELETE,
+        RESTORE,
+        PRUNE
+    }
+
+    private final Properties properties;
+
+    private PendingResets(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static PendingResets load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return new PendingResets(properties);
+    }
+
+    // Schreibt zuerst in eine temporäre Datei, eine leere Liste löscht die Datei
+    public void save(Path file) throws IOException {
+        if (isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Ausstehende Farm-Resets");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void markDelete(String worldName) {
+        properties.setProperty(WORLD_PREFIX + worldName, Action.DELETE.name());
+    }
+
+    public void markRestore(String worldName) {
+        properties.setProperty(WORLD_PREFIX + worldName, Action.RESTORE.name());
+    }
+
+    public void markPrune(String worldName, ChunkArea area) {
+        properties.setProperty(WORLD_PREFIX + worldName, Action.PRUNE.name() + ":"
+            + area.getMinX() + "," + area.getMinZ() + "," + area.getMaxX() + "," + area.getMaxZ());
+    }
+
+    public void setPruneSettings(boolean deleteOutsideArea, long minInhabitedTicks, long maxIdleTicks) {
+        properties.setProperty("prune.deleteOutsideArea", Boolean.toString(deleteOutsideArea));
+        properties.setProperty("prune.minInhabitedTicks", Long.toString(minInhabitedTicks));
+        properties.setProperty("prune.maxIdleTicks", Long.toString(maxIdleTicks));
+    }
+
+    public List<String> getWorlds() {
+        List<String> worlds = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(WORLD_PREFIX)) {
+                worlds.add(key.substring(WORLD_PREFIX.length()));
+            }
+        }
+        worlds.sort(null);
+        return worlds;
+    }
+
+    // Liefert null für unbekannte oder beschädigte Einträge
+    public Action getAction(String worldName) {
+        String value = properties.getProperty(WORLD_PREFIX + worldName);
+        if (value == null) {
+            return null;
+        }
+        int separator = value.indexOf(':');
+        try {
+            return Action.valueOf((separator >= 0 ? value.substring(0, separator) : value).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public ChunkArea getPruneArea(String worldName) {
+        String value = properties.getProperty(WORLD_PREFIX + worldName, "");
+        String[] bounds = value.substring(value.indexOf(':') + 1).split(",");
+        if (bounds.length != 4) {
+            return null;
+        }
+        try {
+            return new ChunkArea(Integer.parseInt(bounds[0].trim()), Integer.parseInt(bounds[1].trim()),
+                Integer.parseInt(bounds[2].trim()), Integer.parseInt(bounds[3].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public RegionPruner createPruner(ChunkArea area, int threads, Logger logger) {
+        return new RegionPruner(
+            area,
+            Boolean.parseBoolean(properties.getProperty("prune.deleteOutsideArea", "true")),
+            parseLong(properties.getProperty("prune.minInhabitedTicks"), 6000L),
+            parseLong(properties.getProperty("prune.maxIdleTicks"), 0L),
+            threads,
+            logger
+        );
+    }
+
+    public void remove(String worldName) {
+        properties.remove(WORLD_PREFIX + worldName);
+    }
+
+    public boolean isEmpty() {
+        return getWorlds().isEmpty();
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package de.farmreset.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vorlagen für Farm-Welten, inhaltsadressiert gespeichert. Jede Datei einer Welt wird per SHA-256
+ * als Blob abgelegt, gleiche Dateien (z.B. unveränderte Regiondateien zwischen zwei Generationen
+ * oder mehreren Farmen) liegen nur einmal auf der Platte.
+ *
+ * Aufbau:
+ *   store.lock                   - Sperre für Anlegen, Wiederherstellen und Aufräumen
+ *   blobs/ab/abcdef...           - Dateiinhalt, Name = SHA-256
+ *   manifests/<Vorlage>/<Generation>.manifest - je Zeile: Hash, Größe, relativer Pfad
+ */
+public class TemplateStore {
+
+    public static final String FOLDER_NAME = "templates";
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    // Diese Dateien gehören zur laufenden Welt und dürfen nicht in eine Vorlage
+    private static final Set<String> EXCLUDED = Set.of("session.lock", "uid.dat");
+    // Nur diese Dateien ersetzt der Server atomar (neue Datei + Umbenennen), alle anderen schreibt er
+    // direkt in die vorhandene Datei und würde damit einen verlinkten Blob verändern
+    private static final Set<String> LINKABLE = Set.of("level.dat");
+    // FileLock schützt nur gegen andere Prozesse (Offline-Reset), innerhalb der JVM zusätzlich synchronisieren
+    private static final Object JVM_LOCK = new Object();
+
+    private final Path root;
+    private final Path blobsDir;
+    private final Path manifestsDir;
+    private final int threads;
+    private final Logger logger;
+
+    public TemplateStore(Path root, int threads, Logger logger) {
+        this.root = root;
+        this.blobsDir = root.resolve("blobs");
+        this.manifestsDir = root.resolve("manifests");
+        this.threads = Math.max(1, threads);
+        this.logger = logger;
+    }
+
+    public boolean hasTemplate(String template) {
+        try {
+            return getLatestManifest(template) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Legt eine neue Generation an, nur bisher unbekannte Dateien werden tatsächlich abgelegt
+    public Result snapshot(String template, Path worldFolder) throws IOException {
+        return withLock(() -> snapshotLocked(template, worldFolder));
+    }
+
+    public Result materialize(String template, Path worldFolder) throws IOException {
+        return withLock(() -> materializeLocked(template, worldFolder));
+    }
+
+    // Entfernt alte Generationen einer Vorlage und alle Blobs, auf die kein Manifest mehr verweist.
+    // Läuft unter derselben Sperre wie snapshot(), damit keine Blobs ohne fertiges Manifest gelöscht werden.
+    public int cleanup(String template, int keepGenerations) throws IOException {
+        return withLock(() -> cleanupLocked(template, keepGenerations));
+    }
+
+    private Result snapshotLocked(String template, Path worldFolder) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(worldFolder)) {
+            files = stream.filter(Files::isRegularFile)
+                .filter(file -> !EXCLUDED.contains(file.getFileName().toString()))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+
+        Result result = new Result();
+        List<String> lines = inPool(() -> files.parallelStream().map(file -> {
+            try {
+                return storeBlob(file, result) + " " + toEntryPath(worldFolder.relativize(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).collect(Collectors.toList()));
+
+        Path templateDir = manifestsDir.resolve(template);
+        Files.createDirectories(templateDir);
+        long generation = System.currentTimeMillis();
+        Path manifest = templateDir.resolve(generation + MANIFEST_SUFFIX);
+        Path temp = templateDir.resolve(generation + MANIFEST_SUFFIX + ".tmp");
+        Files.write(temp, lines);
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return result;
+    }
+
+    // Baut die Welt aus der neuesten Generation in einem Nachbarordner auf und ersetzt den Welt-Ordner
+    // erst, wenn alles geschrieben ist. Schlägt etwas fehl, bleibt der Welt-Ordner unverändert.
+    // Nur atomar ersetzte Dateien werden hart verlinkt.
+    private Result materializeLocked(String template, Path targetFolder) throws IOException {
+        Path manifest = getLatestManifest(template);
+        if (manifest == null) {
+            throw new IOException("Vorlage '" + template + "' nicht gefunden");
+        }
+        List<String> lines = Files.readAllLines(manifest);
+
+        Path worldFolder = targetFolder.resolveSibling(targetFolder.getFileName() + ".restore");
+        // Rest eines abgebrochenen Versuchs
+        WorldResetEngine.deleteDirectory(worldFolder);
+        Files.createDirectories(worldFolder);
+
+        Result result = new Result();
+        try {
+            buildWorld(lines, worldFolder, result);
+        } catch (IOException | RuntimeException e) {
+            WorldResetEngine.deleteDirectory(worldFolder);
+            throw e;
+        }
+        WorldResetEngine.deleteDirectory(targetFolder);
+        Files.move(worldFolder, targetFolder, StandardCopyOption.ATOMIC_MOVE);
+        return result;
+    }
+
+    private void buildWorld(List<String> lines, Path worldFolder, Result result) throws IOException {
+        inPool(() -> {
+            lines.parallelStream().filter(line -> !line.isBlank()).forEach(line -> {
+                String[] parts = line.split(" ", 3);
+                Path blob = getBlob(parts[0]);
+                Path target = worldFolder.resolve(parts[2]).normalize();
+                if (!target.startsWith(worldFolder)) {
+                    throw new UncheckedIOException(new IOException("Ungültiger Pfad in Vorlage: " + parts[2]));
+                }
+                try {
+                    Files.createDirectories(target.getParent());
+                    if (!LINKABLE.contains(target.getFileName().toString()) || !tryLink(target, blob)) {
+                        Files.copy(blob, target);
+                        result.bytesWritten.addAndGet(Long.parseLong(parts[1]));
+                    } else {
+                        result.linked.incrementAndGet();
+                    }
+                    result.files.incrementAndGet();
+                    result.bytes.addAndGet(Long.parseLong(parts[1]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return null;
+        });
+    }
+
+    private int cleanupLocked(String template, int keepGenerations) throws IOException {
+        List<Path> generations = getManifests(template);
+        for (int i = 0; i < generations.size() - Math.max(1, keepGenerations); i++) {
+            Files.deleteIfExists(generations.get(i));
+        }
+
+        Set<String> referenced = new HashSet<>();
+        if (Files.isDirectory(manifestsDir)) {
+            try (DirectoryStream<Path> templates = Files.newDirectoryStream(manifestsDir)) {
+                for (Path templateDir : templates) {
+                    for (Path manifest : getManifests(templateDir.getFileName().toString())) {
+                        try (BufferedReader reader = Files.newBufferedReader(manifest)) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                if (!line.isBlank()) {
+                                    referenced.add(line.substring(0, line.indexOf(' ')));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Path> unused;
+        try (Stream<Path> stream = Files.exists(blobsDir) ? Files.walk(blobsDir) : Stream.empty()) {
+            unused = stream.filter(Files::isRegularFile)
+                .filter(blob -> !referenced.contains(blob.getFileName().toString()))
+                .collect(Collectors.toList());
+        }
+        for (Path blob : unused) {
+            Files.deleteIfExists(blob);
+        }
+        return unused.size();
+    }
+
+    private List<Path> getManifests(String template) throws IOException {
+        Path templateDir = manifestsDir.resolve(template);
+        List<Path> manifests = new ArrayList<>();
+        if (!Files.isDirectory(templateDir)) {
+            return manifests;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(templateDir, "*" + MANIFEST_SUFFIX)) {
+            stream.forEach(manifests::add);
+        }
+        // Generation = Zeitstempel, die neueste steht am Ende
+        manifests.sort((a, b) -> Long.compare(getGeneration(a), getGeneration(b)));
+        return manifests;
+    }
+
+    private Path getLatestManifest(String template) throws IOException {
+        List<Path> manifests = getManifests(template);
+        return manifests.isEmpty() ? null : manifests.get(manifests.size() - 1);
+    }
+
+    private static long getGeneration(Path manifest) {
+        String name = manifest.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - MANIFEST_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private Path getBlob(String hash) {
+        return blobsDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // Die Welt kann sich während des Kopierens noch ändern, deshalb wird die Kopie gehasht und nicht
+    // die Quelle - so passt der Inhalt immer zum Namen. Liefert "Hash Größe".
+    private String storeBlob(Path source, Result result) throws IOException {
+        Path tempDir = blobsDir.resolve("tmp");
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "blob", ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            long size = Files.size(temp);
+            String hash = hash(temp);
+            Path blob = getBlob(hash);
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                try {
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                    result.blobsWritten.incrementAndGet();
+                    result.bytesWritten.addAndGet(size);
+                } catch (FileAlreadyExistsException e) {
+                    // Gleicher Inhalt wurde gleichzeitig von einem anderen Thread abgelegt
+                }
+            }
+            result.files.incrementAndGet();
+            result.bytes.addAndGet(size);
+            return hash + " " + size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean tryLink(Path target, Path blob) {
+        try {
+            Files.createLink(target, blob);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // Anderes Dateisystem oder keine Hardlinks möglich
+            return false;
+        }
+    }
+
+    private static String toEntryPath(Path relative) {
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private <T> T withLock(StoreAction<T> action) throws IOException {
+        synchronized (JVM_LOCK) {
+            Files.createDirectories(root);
+            try (FileChannel channel = FileChannel.open(root.resolve("store.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    return action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private interface StoreAction<T> {
+        T run() throws IOException;
+    }
+
+    private <T> T inPool(Callable<T> task) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Vorgang unterbrochen", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static class Result {
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong blobsWritten = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private final AtomicLong linked = new AtomicLong();
+
+        public long getFiles() {
+            return files.get();
+        }
+
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        public long getBlobsWritten() {
+            return blobsWritten.get();
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten.get();
+        }
+
+        public long getLinked() {
+            return linked.get();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package de.farmreset.storage;
+
+import de.farmreset.region.ChunkArea;
+import de.farmreset.region.RegionPruner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Arbeitet ausstehende Resets auf Dateiebene ab, ohne dass Bukkit geladen ist.
+ * Wird vom Offline-Reset vor dem Serverstart und vom Plugin in onLoad() verwendet.
+ */
+public class WorldResetEngine {
+
+    private final Path worldContainer;
+    private final TemplateStore templates;
+    private final int threads;
+    private final Logger logger;
+
+    public WorldResetEngine(Path worldContainer, TemplateStore templates, int threads, Logger logger) {
+        this.worldContainer = worldContainer;
+        this.templates = templates;
+        this.threads = Math.max(1, threads);
+        this.logger = logger;
+    }
+
+    // Liefert die Welten, die erfolgreich zurückgesetzt wurden
+    public Set<String> run(PendingResets pending) {
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        List<String> deletes = new ArrayList<>();
+        List<String> prunes = new ArrayList<>();
+        for (String worldName : pending.getWorlds()) {
+            PendingResets.Action action = pending.getAction(worldName);
+            if (action == PendingResets.Action.DELETE || action == PendingResets.Action.RESTORE) {
+                deletes.add(worldName);
+            } else if (action == PendingResets.Action.PRUNE) {
+                prunes.add(worldName);
+            } else {
+                logger.warning("Unbekannter Reset-Eintrag für Welt '" + worldName + "' wird verworfen.");
+                completed.add(worldName);
+            }
+        }
+
+        // Löschen und Wiederherstellen ist reine Datei-Arbeit, alle Welten und deren Dateien werden gleichzeitig bearbeitet
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> deletes.parallelStream().forEach(worldName -> {
+                long start = System.currentTimeMillis();
+                try {
+                    Path worldFolder = worldContainer.resolve(worldName);
+                    deleteDirectory(worldFolder);
+                    if (pending.getAction(worldName) == PendingResets.Action.RESTORE) {
+                        restore(worldName, worldFolder, start);
+                    } else {
+                        logger.info("Welt-Ordner '" + worldName + "' gelöscht (" + (System.currentTimeMillis() - start) + " ms).");
+                    }
+                    completed.add(worldName);
+                } catch (IOException | UncheckedIOException e) {
+                    logger.log(Level.SEVERE, "Welt '" + worldName + "' konnte nicht zurückgesetzt werden: " + e.getMessage());
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return completed;
+        } catch (ExecutionException e) {
+            logger.log(Level.SEVERE, "Löschen der Welten fehlgeschlagen: " + e.getCause().getMessage());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Der Pruner verteilt die Regiondateien selbst auf alle Threads, daher eine Welt nach der anderen
+        for (String worldName : prunes) {
+            ChunkArea area = pending.getPruneArea(worldName);
+            if (area == null) {
+                logger.warning("Ungültiger Bereich für Welt '" + worldName + "' wird verworfen.");
+                completed.add(worldName);
+                continue;
+            }
+            Path worldFolder = worldContainer.resolve(worldName);
+            if (!Files.isDirectory(worldFolder)) {
+                completed.add(worldName);
+                continue;
+            }
+            long start = System.currentTimeMillis();
+            try {
+                RegionPruner.Result result = pending.createPruner(area, threads, logger).prune(worldFolder);
+                completed.add(worldName);
+                logger.info("Welt '" + worldName + "' bereinigt: " + result.getChunksDeleted() + " von "
+                    + result.getChunksScanned() + " Chunks in " + result.getRegionFiles() + " Regiondateien gelöscht, "
+                    + ((result.getBytesBefore() - result.getBytesAfter()) / (1024 * 1024)) + " MB frei ("
+                    + (System.currentTimeMillis() - start) + " ms).");
+            } catch (IOException e) {
+                logger.severe("Welt '" + worldName + "' konnte nicht bereinigt werden: " + e.getMessage());
+            }
+        }
+        return completed;
+    }
+
+    // Ohne Vorlage bleibt die Welt gelöscht und wird beim Start neu generiert
+    private void restore(String worldName, Path worldFolder, long start) throws IOException {
+        if (templates == null || !templates.hasTemplate(worldName)) {
+            logger.warning("Keine Vorlage für Welt '" + worldName + "' gefunden, die Welt wird neu generiert.");
+            return;
+        }
+        TemplateStore.Result result = templates.materialize(worldName, worldFolder);
+        logger.info("Welt '" + worldName + "' aus Vorlage wiederhergestellt: " + result.getFiles() + " Dateien, "
+            + result.getLinked() + " verlinkt, " + (result.getBytesWritten() / (1024 * 1024)) + " MB kopiert ("
+            + (System.currentTimeMillis() - start) + " ms).");
+    }
+
+    // Dateien werden parallel gelöscht, danach die Ordner von innen nach außen
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        List<Path> directories;
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            List<Path> all = stream.collect(Collectors.toList());
+            directories = all.stream().filter(Files::isDirectory).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            files = all.stream().filter(path -> !Files.isDirectory(path)).collect(Collectors.toList());
+        }
+        files.parallelStream().forEach(file -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        for (Path dir : directories) {
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package de.farmreset.api;
+
+import de.farmreset.api.event.FarmResetCompleteEvent;
+import de.farmreset.api.event.FarmResetStageCompleteEvent;
+import de.farmreset.api.event.FarmResetStageEvent;
+import de.farmreset.models.FarmData;
+import de.farmreset.scheduler.FarmTask;
+import de.farmreset.scheduler.TaskScheduler;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Event;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResetPipelineTest {
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private final List<Event> events = new CopyOnWriteArrayList<>();
+
+    // Globale Tasks laufen sofort, asynchrone auf einem eigenen Thread
+    private static class TestScheduler implements TaskScheduler {
+        @Override
+        public boolean isFolia() {
+            return false;
+        }
+
+        @Override
+        public FarmTask runGlobal(Runnable task) {
+            synchronized (this) {
+                task.run();
+            }
+            return null;
+        }
+
+        @Override
+        public FarmTask runGlobalLater(Runnable task, long delay) {
+            return runGlobal(task);
+        }
+
+        @Override
+        public FarmTask runGlobalTimer(Runnable task, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FarmTask runAsync(Runnable task) {
+            CompletableFuture.runAsync(task);
+            return null;
+        }
+
+        @Override
+        public FarmTask runAsyncTimer(Runnable task, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FarmTask runAtLocation(Location location, Runnable task) {
+            return runGlobal(task);
+        }
+
+        @Override
+        public FarmTask runForEntity(Entity entity, Runnable task) {
+            return runGlobal(task);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> teleport(Entity entity, Location location) {
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private ResetPipeline createPipeline(Consumer<Event> listener) {
+        return new ResetPipeline(new TestScheduler(), event -> {
+            events.add(event);
+            listener.accept(event);
+        });
+    }
+
+    private ResetStage stage(String id, StageThread thread) {
+        return ResetStage.of(id, thread, context -> {
+            executed.add(id);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private static ResetContext context() {
+        return new ResetContext(new FarmData("mine", null, null, null), "farm_mine", new File("farm_mine"), false);
+    }
+
+    private static ResetContext await(CompletableFuture<ResetContext> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void stagesRunInOrderAcrossThreads() throws Exception {
+        ResetPipeline pipeline = createPipeline(event -> { });
+        pipeline.addStage(stage(ResetPipeline.UNLOAD, StageThread.MAIN));
+        pipeline.addStage(stage(ResetPipeline.CLEAR, StageThread.ASYNC));
+        pipeline.addStage(stage(ResetPipeline.FINALIZE, StageThread.MAIN));
+        pipeline.insertBefore(ResetPipeline.UNLOAD, stage(ResetPipeline.EVACUATE, StageThread.MAIN));
+        pipeline.insertAfter(ResetPipeline.CLEAR, stage(ResetPipeline.RESTORE, StageThread.ASYNC));
+
+        ResetContext context = context();
+        assertSame(context, await(pipeline.run(context)));
+
+        List<String> order = List.of(ResetPipeline.EVACUATE, ResetPipeline.UNLOAD, ResetPipeline.CLEAR,
+            ResetPipeline.RESTORE, ResetPipeline.FINALIZE);
+        assertEquals(order, executed);
+        assertEquals(order, new ArrayList<>(context.getStageDurations().keySet()));
+    }
+
+    @Test
+    void replacedAndRemovedStagesAreHonoured() throws Exception {
+        ResetPipeline pipeline = createPipeline(event -> { });
+        pipeline.addStage(stage(ResetPipeline.UNLOAD, StageThread.MAIN));
+        pipeline.addStage(stage(ResetPipeline.CLEAR, StageThread.ASYNC));
+        pipeline.addStage(stage(ResetPipeline.FINALIZE, StageThread.MAIN));
+        pipeline.replace(ResetPipeline.CLEAR, stage("prune", StageThread.ASYNC));
+
+        assertTrue(pipeline.remove(ResetPipeline.FINALIZE));
+        assertFalse(pipeline.remove(ResetPipeline.FINALIZE));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.insertAfter("gibt_es_nicht", stage("x", StageThread.MAIN)));
+        await(pipeline.run(context()));
+
+        assertEquals(List.of(ResetPipeline.UNLOAD, "prune"), executed);
+    }
+
+    @Test
+    void cancelledStageIsSkipped() throws Exception {
+        ResetPipeline pipeline = createPipeline(event -> {
+            if (event instanceof FarmResetStageEvent && ((FarmResetStageEvent) event).getStageId().equals(ResetPipeline.CLEAR)) {
+                ((FarmResetStageEvent) event).setCancelled(true);
+            }
+        });
+        pipeline.addStage(stage(ResetPipeline.UNLOAD, StageThread.MAIN));
+        pipeline.addStage(stage(ResetPipeline.CLEAR, StageThread.ASYNC));
+        pipeline.addStage(stage(ResetPipeline.FINALIZE, StageThread.MAIN));
+
+        ResetContext context = await(pipeline.run(context()));
+
+        assertEquals(List.of(ResetPipeline.UNLOAD, ResetPipeline.FINALIZE), executed);
+        assertFalse(context.getStageDurations().containsKey(ResetPipeline.CLEAR));
+        long completed = events.stream().filter(event -> event instanceof FarmResetStageCompleteEvent).count();
+        assertEquals(2, completed);
+        FarmResetCompleteEvent done = (FarmResetCompleteEvent) events.get(events.size() - 1);
+        assertTrue(done.isSuccessful());
+    }
+
+    @Test
+    void failedStageStopsPipeline() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Welt noch geladen");
+        ResetPipeline pipeline = createPipeline(event -> { });
+        pipeline.addStage(stage(ResetPipeline.UNLOAD, StageThread.MAIN));
+        pipeline.addStage(ResetStage.of(ResetPipeline.CLEAR, StageThread.ASYNC, context -> {
+            throw failure;
+        }));
+        pipeline.addStage(stage(ResetPipeline.FINALIZE, StageThread.MAIN));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> await(pipeline.run(context())));
+
+        assertSame(failure, error.getCause());
+        assertEquals(List.of(ResetPipeline.UNLOAD), executed);
+        FarmResetStageCompleteEvent clear = (FarmResetStageCompleteEvent) events.stream()
+            .filter(event -> event instanceof FarmResetStageCompleteEvent)
+            .filter(event -> ((FarmResetStageCompleteEvent) event).getStageId().equals(ResetPipeline.CLEAR))
+            .findFirst().orElseThrow();
+        assertSame(failure, clear.getError());
+        FarmResetCompleteEvent done = (FarmResetCompleteEvent) events.get(events.size() - 1);
+        assertSame(failure, done.getError());
+    }
+
+    @Test
+    void emptyPipelineCompletes() throws Exception {
+        ResetPipeline pipeline = createPipeline(event -> { });
+
+        ResetContext context = await(pipeline.run(context()));
+
+        assertTrue(executed.isEmpty());
+        assertEquals(1, events.size());
+        assertNull(((FarmResetCompleteEvent) events.get(0)).getError());
+        assertTrue(context.getStageDurations().isEmpty());
+    }
+}
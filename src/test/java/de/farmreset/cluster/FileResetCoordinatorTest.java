@@ -0,0 +1,79 @@
+package de.farmreset.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileResetCoordinatorTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long TIMEOUT = 60_000L;
+
+    private static ServerResetState member(String serverId, long lastHeartbeat) {
+        return new ServerResetState(serverId, ResetState.IDLE, lastHeartbeat, 0L);
+    }
+
+    private static Properties lease(String owner, long expires) {
+        Properties lease = new Properties();
+        lease.setProperty("owner", owner);
+        lease.setProperty("expires", Long.toString(expires));
+        return lease;
+    }
+
+    @Test
+    void slotIsPositionInSortedMemberList() {
+        List<ServerResetState> cluster = List.of(member("lobby-2", NOW), member("farm-1", NOW), member("lobby-1", NOW));
+
+        assertEquals(0, FileResetCoordinator.getSlot(cluster, "farm-1", NOW, TIMEOUT));
+        assertEquals(1, FileResetCoordinator.getSlot(cluster, "lobby-1", NOW, TIMEOUT));
+        assertEquals(2, FileResetCoordinator.getSlot(cluster, "lobby-2", NOW, TIMEOUT));
+    }
+
+    @Test
+    void inactiveMembersDoNotTakeASlot() {
+        List<ServerResetState> cluster = List.of(member("a", NOW - TIMEOUT - 1), member("b", NOW - TIMEOUT), member("c", NOW));
+
+        // "a" hat zu lange keinen Heartbeat geschrieben, "b" liegt genau an der Grenze
+        assertEquals(1, FileResetCoordinator.getSlot(cluster, "c", NOW, TIMEOUT));
+    }
+
+    @Test
+    void ownServerCountsWithoutStateFile() {
+        List<ServerResetState> cluster = List.of(member("a", NOW), member("c", NOW));
+
+        assertEquals(1, FileResetCoordinator.getSlot(cluster, "b", NOW, TIMEOUT));
+        assertEquals(0, FileResetCoordinator.getSlot(List.of(), "b", NOW, TIMEOUT));
+    }
+
+    @Test
+    void missingLeaseCanBeTaken() {
+        assertTrue(FileResetCoordinator.canTakeLease(null, "a", NOW));
+    }
+
+    @Test
+    void foreignLeaseBlocksUntilItExpires() {
+        Properties lease = lease("b", NOW + 1);
+
+        assertFalse(FileResetCoordinator.canTakeLease(lease, "a", NOW));
+        assertTrue(FileResetCoordinator.canTakeLease(lease, "a", NOW + 1));
+    }
+
+    @Test
+    void ownLeaseCanBeRenewed() {
+        assertTrue(FileResetCoordinator.canTakeLease(lease("a", NOW + TIMEOUT), "a", NOW));
+    }
+
+    @Test
+    void corruptExpiryCountsAsExpired() {
+        Properties lease = lease("b", 0L);
+        lease.setProperty("expires", "bald");
+
+        assertTrue(FileResetCoordinator.canTakeLease(lease, "a", NOW));
+        assertTrue(FileResetCoordinator.canTakeLease(new Properties(), "a", NOW));
+    }
+}
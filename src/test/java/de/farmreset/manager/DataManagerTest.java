@@ -0,0 +1,46 @@
+package de.farmreset.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NavigableSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DataManagerTest {
+
+    private static NavigableSet<String> index(String... names) {
+        NavigableSet<String> index = DataManager.createNameIndex();
+        index.addAll(List.of(names));
+        return index;
+    }
+
+    @Test
+    void namesDifferingOnlyInCaseAreKept() {
+        assertEquals(List.of("M", "Mine", "mine", "Minecraft"), List.copyOf(index("Minecraft", "mine", "M", "Mine")));
+    }
+
+    @Test
+    void prefixMatchesAllCaseVariants() {
+        NavigableSet<String> index = index("Mine", "mine", "Minecraft", "M", "Nether");
+
+        assertEquals(List.of("Mine", "mine", "Minecraft"), DataManager.getNamesStartingWith(index, "Mine"));
+        assertEquals(List.of("Mine", "mine", "Minecraft"), DataManager.getNamesStartingWith(index, "mine"));
+        assertEquals(List.of("Mine", "mine", "Minecraft"), DataManager.getNamesStartingWith(index, "MINE"));
+        assertEquals(List.of("M", "Mine", "mine", "Minecraft"), DataManager.getNamesStartingWith(index, "M"));
+        assertEquals(List.of("M", "Mine", "mine", "Minecraft"), DataManager.getNamesStartingWith(index, "m"));
+        assertEquals(List.of("Minecraft"), DataManager.getNamesStartingWith(index, "minec"));
+    }
+
+    @Test
+    void emptyPrefixReturnsAllNames() {
+        NavigableSet<String> index = index("b", "A", "a");
+
+        assertEquals(List.of("A", "a", "b"), DataManager.getNamesStartingWith(index, ""));
+    }
+
+    @Test
+    void unknownPrefixReturnsNothing() {
+        assertEquals(List.of(), DataManager.getNamesStartingWith(index("Mine", "Nether"), "End"));
+    }
+}
@@ -0,0 +1,104 @@
+package de.farmreset.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PopulationTrackerTest {
+
+    private static final DayOfWeek DAY = DayOfWeek.WEDNESDAY;
+    private static final int MIN_SAMPLES = 3;
+
+    private final Map<String, PopulationTracker.Histogram> histograms = new HashMap<>();
+
+    // Jede Stunde des Tages bekommt MIN_SAMPLES gleiche Messungen, die übrigen Stunden sind sehr voll
+    private void record(String worldName, int quietHour, int quietPlayers, float quietMspt) {
+        PopulationTracker.Histogram histogram = histograms.computeIfAbsent(worldName, name -> new PopulationTracker.Histogram());
+        for (int hour = 0; hour < 24; hour++) {
+            int players = hour == quietHour ? quietPlayers : 50;
+            float mspt = hour == quietHour ? quietMspt : 40f;
+            for (int i = 0; i < MIN_SAMPLES; i++) {
+                histogram.record(PopulationTracker.hourOfWeek(DAY, hour), players, mspt);
+            }
+        }
+    }
+
+    private int quietestHour(List<String> worldNames, int fromHour, int toHour) {
+        return PopulationTracker.getQuietestHour(histograms, worldNames, DAY, fromHour, toHour, MIN_SAMPLES);
+    }
+
+    @Test
+    void picksHourWithFewestPlayersInWindow() {
+        record("farm_mine", 4, 1, 20f);
+
+        assertEquals(4, quietestHour(List.of("farm_mine"), 2, 6));
+        // Außerhalb des Fensters zählt die ruhige Stunde nicht
+        assertEquals(7, quietestHour(List.of("farm_mine"), 7, 9));
+    }
+
+    @Test
+    void playersOfAllWorldsAreAdded() {
+        record("farm_mine", 3, 0, 20f);
+        record("farm_nether", 5, 0, 20f);
+        PopulationTracker.Histogram mine = histograms.get("farm_mine");
+        // In farm_mine ist um 5 Uhr fast so wenig los wie um 3 Uhr
+        for (int i = 0; i < 200; i++) {
+            mine.record(PopulationTracker.hourOfWeek(DAY, 5), 1, 20f);
+        }
+
+        assertEquals(5, quietestHour(List.of("farm_mine", "farm_nether"), 0, 23));
+    }
+
+    @Test
+    void similarPlayerCountsAreDecidedByMspt() {
+        record("farm_mine", 2, 10, 45f);
+        PopulationTracker.Histogram mine = histograms.get("farm_mine");
+        for (int i = 0; i < 500; i++) {
+            mine.record(PopulationTracker.hourOfWeek(DAY, 3), 10, 15f);
+        }
+
+        assertEquals(3, quietestHour(List.of("farm_mine"), 2, 3));
+    }
+
+    @Test
+    void windowIsClampedToDay() {
+        record("farm_mine", 23, 0, 20f);
+
+        assertEquals(23, quietestHour(List.of("farm_mine"), 20, 30));
+        assertEquals(0, quietestHour(List.of("farm_mine"), -5, 0));
+    }
+
+    @Test
+    void missingWorldFallsBackToServerTotal() {
+        record("farm_mine", 4, 0, 20f);
+        record(PopulationTracker.SERVER_TOTAL, 6, 0, 20f);
+
+        assertEquals(6, quietestHour(List.of("farm_mine", "farm_end"), 0, 23));
+    }
+
+    @Test
+    void tooFewSamplesFallBackToServerTotal() {
+        PopulationTracker.Histogram mine = new PopulationTracker.Histogram();
+        mine.record(PopulationTracker.hourOfWeek(DAY, 4), 0, 20f);
+        histograms.put("farm_mine", mine);
+        record(PopulationTracker.SERVER_TOTAL, 6, 0, 20f);
+
+        assertEquals(6, quietestHour(List.of("farm_mine"), 0, 23));
+    }
+
+    @Test
+    void withoutEnoughDataNoHourIsPlanned() {
+        assertEquals(-1, quietestHour(List.of("farm_mine"), 0, 23));
+
+        PopulationTracker.Histogram total = new PopulationTracker.Histogram();
+        total.record(PopulationTracker.hourOfWeek(DAY, 4), 0, 20f);
+        histograms.put(PopulationTracker.SERVER_TOTAL, total);
+
+        assertEquals(-1, quietestHour(List.of("farm_mine"), 0, 23));
+    }
+}
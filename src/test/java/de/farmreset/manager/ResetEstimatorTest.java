@@ -0,0 +1,131 @@
+package de.farmreset.manager;
+
+import de.farmreset.api.ResetPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResetEstimatorTest {
+
+    private static final long MB = 1024L * 1024L;
+    private static final List<String> STAGES = List.of(ResetPipeline.UNLOAD, ResetPipeline.CLEAR);
+
+    private final Properties metrics = new Properties();
+
+    @TempDir
+    Path tempDir;
+
+    private static Map<String, Long> durations(long unloadMillis, long clearMillis) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put(ResetPipeline.UNLOAD, unloadMillis);
+        durations.put(ResetPipeline.CLEAR, clearMillis);
+        return durations;
+    }
+
+    // Die Größe zählt, nicht der Inhalt, daher reicht eine leere Datei mit gesetzter Länge
+    private ResetEstimator.Estimate estimateForWorld(long worldBytes, boolean deferred) throws IOException {
+        Path world = tempDir.resolve("farm_mine");
+        Files.createDirectories(world.resolve("region"));
+        try (RandomAccessFile file = new RandomAccessFile(world.resolve("region/r.0.0.mca").toFile(), "rw")) {
+            file.setLength(worldBytes);
+        }
+        ResetEstimator.Estimate estimate = new ResetEstimator.Estimate("mine", "farm_mine");
+        ResetEstimator.scanWorldFolder(world, estimate);
+        ResetEstimator.applyMetrics(metrics, STAGES, deferred, estimate);
+        return estimate;
+    }
+
+    @Test
+    void withoutMetricsEstimateIsIncomplete() throws IOException {
+        ResetEstimator.Estimate estimate = estimateForWorld(MB, false);
+
+        assertEquals(-1L, estimate.getStageMillis().get(ResetPipeline.UNLOAD));
+        assertEquals(-1L, estimate.getStageMillis().get(ResetPipeline.CLEAR));
+        assertEquals(-1L, estimate.getRestartMillis());
+        assertFalse(estimate.isComplete());
+        assertEquals(-1L, estimate.getTotalMillis());
+    }
+
+    @Test
+    void newMeasurementsAreSmoothed() throws IOException {
+        ResetEstimator.recordStages(metrics, durations(1000L, 0L), 0L, false);
+        ResetEstimator.recordStages(metrics, durations(2000L, 0L), 0L, false);
+
+        // 1000 + (2000 - 1000) * 0.3
+        assertEquals(1300L, estimateForWorld(MB, false).getStageMillis().get(ResetPipeline.UNLOAD));
+    }
+
+    @Test
+    void sizeDependentStagesScaleWithWorldSize() throws IOException {
+        ResetEstimator.recordStages(metrics, durations(500L, 4000L), 100 * MB, false);
+
+        ResetEstimator.Estimate estimate = estimateForWorld(200 * MB, false);
+
+        assertEquals(200 * MB, estimate.getWorldBytes());
+        assertEquals(1, estimate.getRegionFiles());
+        // 40 ms pro MB, die Welt ist inzwischen doppelt so groß
+        assertEquals(8000L, estimate.getStageMillis().get(ResetPipeline.CLEAR));
+        assertEquals(500L, estimate.getStageMillis().get(ResetPipeline.UNLOAD));
+    }
+
+    @Test
+    void smallWorldsAreNotScaled() throws IOException {
+        // Unter 1 MB wäre die Rate pro MB zu ungenau und wird nicht gespeichert
+        ResetEstimator.recordStages(metrics, durations(500L, 4000L), MB / 2, false);
+
+        assertEquals(4000L, estimateForWorld(200 * MB, false).getStageMillis().get(ResetPipeline.CLEAR));
+    }
+
+    @Test
+    void deferredResetsAreMeasuredSeparately() throws IOException {
+        ResetEstimator.recordStages(metrics, durations(500L, 4000L), 0L, true);
+
+        assertEquals(-1L, estimateForWorld(MB, false).getStageMillis().get(ResetPipeline.UNLOAD));
+        assertEquals(500L, estimateForWorld(MB, true).getStageMillis().get(ResetPipeline.UNLOAD));
+    }
+
+    @Test
+    void totalAddsStagesAndRestart() throws IOException {
+        ResetEstimator.recordStages(metrics, durations(500L, 4000L), 0L, false);
+        ResetEstimator.Estimate withoutRestart = estimateForWorld(MB, false);
+        assertFalse(withoutRestart.isComplete());
+
+        metrics.setProperty("restart.millis", "30000.4");
+        ResetEstimator.Estimate estimate = estimateForWorld(MB, false);
+
+        assertTrue(estimate.isComplete());
+        assertEquals(30000L, estimate.getRestartMillis());
+        assertEquals(34500L, estimate.getTotalMillis());
+    }
+
+    @Test
+    void scanCountsRegionFilesPerFolder() throws IOException {
+        Path world = tempDir.resolve("farm_nether");
+        for (String folder : List.of("region", "entities", "poi", "data")) {
+            Files.createDirectories(world.resolve(folder));
+            Files.write(world.resolve(folder + "/r.0.0.mca"), new byte[10]);
+        }
+        Files.write(world.resolve("region/r.0.1.mca"), new byte[10]);
+        Files.write(world.resolve("level.dat"), new byte[5]);
+        ResetEstimator.Estimate estimate = new ResetEstimator.Estimate("nether", "farm_nether");
+
+        ResetEstimator.scanWorldFolder(world, estimate);
+
+        assertEquals(55L, estimate.getWorldBytes());
+        assertEquals(2, estimate.getRegionFiles());
+        assertEquals(1, estimate.getEntityFiles());
+        assertEquals(1, estimate.getPoiFiles());
+    }
+}
@@ -0,0 +1,145 @@
+package de.farmreset.region;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NbtScannerTest {
+
+    private static final Set<String> KEYS = Set.of("InhabitedTime", "LastUpdate");
+
+    private static Map<String, Long> scan(byte[] data) throws IOException {
+        return NbtScanner.findLongs(new DataInputStream(new ByteArrayInputStream(data)), KEYS);
+    }
+
+    // Chunk im Format ab 1.18: die gesuchten Werte stehen direkt im Wurzel-Compound
+    static byte[] chunk(long inhabitedTime, long lastUpdate) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(10);
+        out.writeUTF("");
+        out.writeByte(3);
+        out.writeUTF("DataVersion");
+        out.writeInt(3953);
+        out.writeByte(8);
+        out.writeUTF("Status");
+        out.writeUTF("minecraft:full");
+        out.writeByte(4);
+        out.writeUTF("InhabitedTime");
+        out.writeLong(inhabitedTime);
+        out.writeByte(4);
+        out.writeUTF("LastUpdate");
+        out.writeLong(lastUpdate);
+        out.writeByte(0);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void findsLongsInRootCompound() throws IOException {
+        Map<String, Long> values = scan(chunk(1234L, 98765L));
+
+        assertEquals(1234L, values.get("InhabitedTime"));
+        assertEquals(98765L, values.get("LastUpdate"));
+    }
+
+    @Test
+    void skipsAllOtherTagTypes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(10);
+        out.writeUTF("");
+        out.writeByte(1);
+        out.writeUTF("byte");
+        out.writeByte(1);
+        out.writeByte(2);
+        out.writeUTF("short");
+        out.writeShort(2);
+        out.writeByte(5);
+        out.writeUTF("float");
+        out.writeFloat(1f);
+        out.writeByte(6);
+        out.writeUTF("double");
+        out.writeDouble(1d);
+        out.writeByte(7);
+        out.writeUTF("bytes");
+        out.writeInt(3);
+        out.write(new byte[3]);
+        out.writeByte(11);
+        out.writeUTF("ints");
+        out.writeInt(2);
+        out.writeInt(1);
+        out.writeInt(2);
+        out.writeByte(12);
+        out.writeUTF("longs");
+        out.writeInt(1);
+        out.writeLong(7L);
+        // Liste von Compounds, die selbst ein gleichnamiges Long enthalten, das ignoriert werden muss
+        out.writeByte(9);
+        out.writeUTF("sections");
+        out.writeByte(10);
+        out.writeInt(2);
+        for (int i = 0; i < 2; i++) {
+            out.writeByte(4);
+            out.writeUTF("InhabitedTime");
+            out.writeLong(-1L);
+            out.writeByte(8);
+            out.writeUTF("name");
+            out.writeUTF("section");
+            out.writeByte(0);
+        }
+        // Verschachteltes Compound (Format vor 1.18) wird eine Ebene tief durchsucht
+        out.writeByte(10);
+        out.writeUTF("Level");
+        out.writeByte(4);
+        out.writeUTF("InhabitedTime");
+        out.writeLong(42L);
+        out.writeByte(4);
+        out.writeUTF("LastUpdate");
+        out.writeLong(43L);
+        out.writeByte(0);
+        out.writeByte(0);
+
+        Map<String, Long> values = scan(bytes.toByteArray());
+
+        assertEquals(42L, values.get("InhabitedTime"));
+        assertEquals(43L, values.get("LastUpdate"));
+    }
+
+    @Test
+    void truncatedDataKeepsValuesFoundSoFar() throws IOException {
+        byte[] data = chunk(1234L, 98765L);
+        // Abgeschnitten mitten im LastUpdate-Wert
+        Map<String, Long> values = scan(Arrays.copyOf(data, data.length - 5));
+
+        assertEquals(1234L, values.get("InhabitedTime"));
+        assertEquals(1, values.size());
+    }
+
+    @Test
+    void nonCompoundRootReturnsNothing() throws IOException {
+        assertTrue(scan(new byte[]{8, 0, 0}).isEmpty());
+    }
+
+    @Test
+    void emptyInputReturnsNothing() throws IOException {
+        assertTrue(scan(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void unknownTagTypeFails() {
+        byte[] data = {10, 0, 0, 99, 0, 1, 'x', 0};
+
+        assertThrows(IOException.class, () -> scan(data));
+    }
+}
@@ -0,0 +1,174 @@
+package de.farmreset.region;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+
+    private static final int SECTOR = RegionFile.SECTOR_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    // Schreibt eine Regiondatei mit zlib-komprimierten Chunks, jeweils InhabitedTime = Index
+    private Path writeRegion(String name, int... indices) throws IOException {
+        Map<Integer, byte[]> chunks = new LinkedHashMap<>();
+        for (int index : indices) {
+            chunks.put(index, encode(NbtScannerTest.chunk(index, index * 10L)));
+        }
+
+        Path file = tempDir.resolve(name);
+        ByteBuffer header = ByteBuffer.allocate(2 * SECTOR);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int sector = 2;
+        for (Map.Entry<Integer, byte[]> chunk : chunks.entrySet()) {
+            byte[] data = chunk.getValue();
+            int sectors = (data.length + SECTOR - 1) / SECTOR;
+            header.putInt(chunk.getKey() * 4, (sector << 8) | sectors);
+            header.putInt(SECTOR + chunk.getKey() * 4, 1700000000 + chunk.getKey());
+            body.write(data);
+            body.write(new byte[sectors * SECTOR - data.length]);
+            sector += sectors;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(body.toByteArray())});
+        }
+        return file;
+    }
+
+    private static byte[] encode(byte[] nbt) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(nbt);
+        }
+        byte[] payload = compressed.toByteArray();
+        return ByteBuffer.allocate(5 + payload.length).putInt(payload.length + 1).put((byte) 2).put(payload).array();
+    }
+
+    private static long readInhabitedTime(RegionFile region, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(region.getPath(), StandardOpenOption.READ);
+             DataInputStream in = region.readChunk(channel, index)) {
+            assertNotNull(in, "Chunk " + index + " nicht lesbar");
+            return NbtScanner.findLongs(in, Set.of("InhabitedTime")).get("InhabitedTime");
+        }
+    }
+
+    @Test
+    void openRejectsOtherFileNames() throws IOException {
+        Path file = tempDir.resolve("level.dat");
+        Files.write(file, new byte[16]);
+
+        assertNull(RegionFile.open(file));
+    }
+
+    @Test
+    void readsHeaderAndCoordinates() throws IOException {
+        RegionFile region = RegionFile.open(writeRegion("r.-1.2.mca", 0, 33, 1023));
+
+        assertEquals(3, region.getChunkCount());
+        assertTrue(region.hasChunk(33));
+        assertFalse(region.hasChunk(1));
+        assertEquals(-32 + 1, region.getChunkX(33));
+        assertEquals(64 + 1, region.getChunkZ(33));
+        assertEquals(-1, region.getChunkX(1023));
+        assertEquals(64 + 31, region.getChunkZ(1023));
+    }
+
+    @Test
+    void readChunkInflatesData() throws IOException {
+        RegionFile region = RegionFile.open(writeRegion("r.0.0.mca", 5, 700));
+
+        assertEquals(5L, readInhabitedTime(region, 5));
+        assertEquals(700L, readInhabitedTime(region, 700));
+    }
+
+    @Test
+    void readChunkReturnsNullForMissingChunk() throws IOException {
+        RegionFile region = RegionFile.open(writeRegion("r.0.0.mca", 5));
+
+        try (FileChannel channel = FileChannel.open(region.getPath(), StandardOpenOption.READ)) {
+            assertNull(region.readChunk(channel, 6));
+        }
+    }
+
+    @Test
+    void readChunkReturnsNullForUnknownCompression() throws IOException {
+        Path file = writeRegion("r.0.0.mca", 5);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Kompressionstyp 4 (LZ4) wird nicht unterstützt
+            channel.write(ByteBuffer.wrap(new byte[]{4}), 2L * SECTOR + 4);
+        }
+        RegionFile region = RegionFile.open(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertNull(region.readChunk(channel, 5));
+        }
+    }
+
+    @Test
+    void compactKeepsOnlySelectedChunks() throws IOException {
+        Path file = writeRegion("r.0.0.mca", 1, 2, 3, 4);
+        Files.write(tempDir.resolve("c.2.0.mcc"), new byte[]{1});
+        Files.write(tempDir.resolve("c.3.0.mcc"), new byte[]{1});
+        long sizeBefore = Files.size(file);
+
+        long sizeAfter = RegionFile.open(file).compact(Set.of(1, 3));
+
+        assertEquals(Files.size(file), sizeAfter);
+        assertTrue(sizeAfter < sizeBefore);
+        RegionFile compacted = RegionFile.open(file);
+        assertEquals(2, compacted.getChunkCount());
+        assertEquals(1L, readInhabitedTime(compacted, 1));
+        assertEquals(3L, readInhabitedTime(compacted, 3));
+        assertFalse(Files.exists(tempDir.resolve("c.2.0.mcc")), "Ausgelagerter Chunk eines entfernten Chunks bleibt liegen");
+        assertTrue(Files.exists(tempDir.resolve("c.3.0.mcc")), "Ausgelagerter Chunk eines behaltenen Chunks wurde gelöscht");
+        assertFalse(Files.exists(tempDir.resolve("r.0.0.mca.tmp")));
+    }
+
+    @Test
+    void compactWithoutChunksDeletesFile() throws IOException {
+        Path file = writeRegion("r.0.0.mca", 1, 2);
+
+        assertEquals(0L, RegionFile.open(file).compact(Set.of()));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void compactKeepsFileWhenKeptChunkIsUnreadable() throws IOException {
+        Path file = writeRegion("r.0.0.mca", 1, 2, 3);
+        Files.write(tempDir.resolve("c.2.0.mcc"), new byte[]{1});
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Chunk 3 zeigt hinter das Dateiende
+            channel.write(ByteBuffer.allocate(4).putInt(0, (1000 << 8) | 1), 3 * 4);
+        }
+        byte[] before = Files.readAllBytes(file);
+        RegionFile region = RegionFile.open(file);
+
+        assertThrows(IOException.class, () -> region.compact(Set.of(1, 3)));
+
+        assertArrayEquals(before, Files.readAllBytes(file));
+        assertTrue(Files.exists(tempDir.resolve("c.2.0.mcc")));
+        assertFalse(Files.exists(tempDir.resolve("r.0.0.mca.tmp")));
+    }
+}
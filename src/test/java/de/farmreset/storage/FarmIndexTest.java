@@ -0,0 +1,162 @@
+package de.farmreset.storage;
+
+import de.farmreset.models.FarmRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FarmIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeYaml(String content) throws IOException {
+        Path yaml = tempDir.resolve("farms.yml");
+        Files.writeString(yaml, content);
+        return yaml;
+    }
+
+    private static FarmRecord record(String name, String world) {
+        return new FarmRecord(name, world, 1.5, 64, -2.5, 90f, -10f, -16, 0, -16, 16, 255, 16);
+    }
+
+    @Test
+    void roundTripKeepsAllFields() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        List<FarmRecord> records = List.of(record("Mine", "farm_mine"), record("Nether", "farm_nether"), record("Ohne Welt", null));
+
+        FarmIndex.write(index, yaml, records);
+        List<FarmRecord> read = FarmIndex.read(index, yaml);
+
+        assertNotNull(read);
+        assertEquals(3, read.size());
+        for (int i = 0; i < records.size(); i++) {
+            FarmRecord expected = records.get(i);
+            FarmRecord actual = read.get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getWorldName(), actual.getWorldName());
+            assertEquals(expected.getSpawnX(), actual.getSpawnX());
+            assertEquals(expected.getSpawnY(), actual.getSpawnY());
+            assertEquals(expected.getSpawnZ(), actual.getSpawnZ());
+            assertEquals(expected.getYaw(), actual.getYaw());
+            assertEquals(expected.getPitch(), actual.getPitch());
+            assertEquals(expected.getPos1X(), actual.getPos1X());
+            assertEquals(expected.getPos2Y(), actual.getPos2Y());
+            assertEquals(expected.getPos2Z(), actual.getPos2Z());
+        }
+    }
+
+    @Test
+    void emptyIndexIsValid() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+
+        FarmIndex.write(index, yaml, List.of());
+
+        assertEquals(List.of(), FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void changedYamlMakesIndexStale() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine")));
+
+        Files.writeString(yaml, "farms:\n  Mine: {}\n");
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void touchedYamlMakesIndexStale() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine")));
+
+        Files.setLastModifiedTime(yaml, FileTime.fromMillis(Files.getLastModifiedTime(yaml).toMillis() + 5000));
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void missingFilesReturnNull() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+
+        assertNull(FarmIndex.read(tempDir.resolve("missing.idx"), yaml));
+        assertNull(FarmIndex.read(tempDir.resolve("missing.idx"), tempDir.resolve("missing.yml")));
+    }
+
+    @Test
+    void truncatedIndexReturnsNull() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine"), record("Nether", "farm_nether")));
+
+        byte[] bytes = Files.readAllBytes(index);
+        Files.write(index, Arrays.copyOf(bytes, bytes.length - 20));
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void tooShortHeaderReturnsNull() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        Files.write(index, new byte[]{0x46, 0x52, 0x49});
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void wrongMagicReturnsNull() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine")));
+
+        byte[] bytes = Files.readAllBytes(index);
+        bytes[0] ^= 0x7F;
+        Files.write(index, bytes);
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void corruptOffsetReturnsNull() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine")));
+
+        // Offset des ersten Eintrags zeigt hinter das Dateiende
+        byte[] bytes = Files.readAllBytes(index);
+        bytes[28] = 0x7F;
+        Files.write(index, bytes);
+
+        assertNull(FarmIndex.read(index, yaml));
+    }
+
+    @Test
+    void indexCanBeReplacedAfterRead() throws IOException {
+        Path yaml = writeYaml("farms: {}\n");
+        Path index = tempDir.resolve("farms.idx");
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine")));
+        assertNotNull(FarmIndex.read(index, yaml));
+
+        FarmIndex.write(index, yaml, List.of(record("Mine", "farm_mine"), record("End", "farm_end")));
+
+        List<FarmRecord> read = FarmIndex.read(index, yaml);
+        assertNotNull(read);
+        assertEquals(2, read.size());
+        assertEquals("End", read.get(1).getName());
+    }
+}
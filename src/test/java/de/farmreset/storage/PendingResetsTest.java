@@ -0,0 +1,110 @@
+package de.farmreset.storage;
+
+import de.farmreset.region.ChunkArea;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingResetsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void missingFileLoadsEmpty() throws IOException {
+        PendingResets pending = PendingResets.load(tempDir.resolve(PendingResets.FILE_NAME));
+
+        assertTrue(pending.isEmpty());
+        assertEquals(List.of(), pending.getWorlds());
+    }
+
+    @Test
+    void saveAndLoadRoundTrip() throws IOException {
+        Path file = tempDir.resolve(PendingResets.FILE_NAME);
+        PendingResets pending = PendingResets.load(file);
+        pending.markDelete("farm_mine");
+        pending.markRestore("farm_nether");
+        pending.markPrune("farm_end", new ChunkArea(-4, -5, 6, 7));
+        pending.setPruneSettings(false, 1200L, 48000L);
+        pending.save(file);
+
+        PendingResets loaded = PendingResets.load(file);
+
+        assertEquals(List.of("farm_end", "farm_mine", "farm_nether"), loaded.getWorlds());
+        assertEquals(PendingResets.Action.DELETE, loaded.getAction("farm_mine"));
+        assertEquals(PendingResets.Action.RESTORE, loaded.getAction("farm_nether"));
+        assertEquals(PendingResets.Action.PRUNE, loaded.getAction("farm_end"));
+        ChunkArea area = loaded.getPruneArea("farm_end");
+        assertEquals(-4, area.getMinX());
+        assertEquals(-5, area.getMinZ());
+        assertEquals(6, area.getMaxX());
+        assertEquals(7, area.getMaxZ());
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        assertEquals("false", properties.getProperty("prune.deleteOutsideArea"));
+        assertEquals("1200", properties.getProperty("prune.minInhabitedTicks"));
+        assertEquals("48000", properties.getProperty("prune.maxIdleTicks"));
+        assertFalse(Files.exists(tempDir.resolve(PendingResets.FILE_NAME + ".tmp")));
+    }
+
+    @Test
+    void laterMarkReplacesEarlierOne() throws IOException {
+        PendingResets pending = PendingResets.load(tempDir.resolve(PendingResets.FILE_NAME));
+        pending.markPrune("farm_mine", new ChunkArea(0, 0, 1, 1));
+        pending.markDelete("farm_mine");
+
+        assertEquals(List.of("farm_mine"), pending.getWorlds());
+        assertEquals(PendingResets.Action.DELETE, pending.getAction("farm_mine"));
+    }
+
+    @Test
+    void savingEmptyListDeletesFile() throws IOException {
+        Path file = tempDir.resolve(PendingResets.FILE_NAME);
+        PendingResets pending = PendingResets.load(file);
+        pending.markDelete("farm_mine");
+        pending.setPruneSettings(true, 6000L, 0L);
+        pending.save(file);
+        assertTrue(Files.exists(file));
+
+        pending.remove("farm_mine");
+        pending.save(file);
+
+        assertTrue(pending.isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void corruptEntriesAreReportedAsUnknown() throws IOException {
+        Path file = tempDir.resolve(PendingResets.FILE_NAME);
+        Files.writeString(file, "world.a=EXPLODE\n"
+            + "world.b=PRUNE:1,2,x,4\n"
+            + "world.c=PRUNE:1,2,3\n"
+            + "world.d=prune:1, 2, 3, 4\n"
+            + "prune.minInhabitedTicks=viel\n");
+
+        PendingResets pending = PendingResets.load(file);
+
+        assertEquals(List.of("a", "b", "c", "d"), pending.getWorlds());
+        assertNull(pending.getAction("a"));
+        assertEquals(PendingResets.Action.PRUNE, pending.getAction("b"));
+        assertNull(pending.getPruneArea("b"));
+        assertNull(pending.getPruneArea("c"));
+        assertEquals(PendingResets.Action.PRUNE, pending.getAction("d"));
+        assertEquals(4, pending.getPruneArea("d").getMaxZ());
+        assertNull(pending.getAction("unbekannt"));
+    }
+}
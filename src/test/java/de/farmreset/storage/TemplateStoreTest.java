@@ -0,0 +1,244 @@
+package de.farmreset.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger(TemplateStoreTest.class.getName());
+
+    @TempDir
+    Path tempDir;
+
+    private TemplateStore createStore() {
+        return new TemplateStore(tempDir.resolve("templates"), 2, LOGGER);
+    }
+
+    private Path createWorld(String name) throws IOException {
+        Path world = tempDir.resolve(name);
+        Files.createDirectories(world.resolve("region"));
+        Files.createDirectories(world.resolve("data"));
+        Files.write(world.resolve("level.dat"), new byte[]{10, 0, 0, 0});
+        Files.write(world.resolve("region/r.0.0.mca"), filled(8192, 1));
+        Files.write(world.resolve("region/r.0.1.mca"), filled(8192, 2));
+        // Gleicher Inhalt wie r.0.0.mca, wird nur einmal abgelegt
+        Files.write(world.resolve("data/copy.mca"), filled(8192, 1));
+        Files.write(world.resolve("session.lock"), new byte[]{1});
+        Files.write(world.resolve("uid.dat"), new byte[16]);
+        return world;
+    }
+
+    private static byte[] filled(int size, int value) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> stream = Files.walk(tempDir.resolve("templates/blobs"))) {
+            return stream.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private List<Path> listFiles(Path folder) throws IOException {
+        try (Stream<Path> stream = Files.walk(folder)) {
+            return stream.filter(Files::isRegularFile).map(folder::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // Generationen sind Zeitstempel in Millisekunden
+    private static void nextGeneration() throws InterruptedException {
+        Thread.sleep(5);
+    }
+
+    @Test
+    void snapshotAndMaterializeRoundTrip() throws IOException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+
+        TemplateStore.Result snapshot = store.snapshot("farm_mine", world);
+        assertEquals(4, snapshot.getFiles());
+        assertEquals(3, snapshot.getBlobsWritten());
+        assertEquals(3, countBlobs());
+        assertTrue(store.hasTemplate("farm_mine"));
+        assertFalse(store.hasTemplate("farm_nether"));
+
+        Path restored = tempDir.resolve("restored");
+        TemplateStore.Result materialized = store.materialize("farm_mine", restored);
+
+        assertEquals(4, materialized.getFiles());
+        assertEquals(List.of(Path.of("data/copy.mca"), Path.of("level.dat"), Path.of("region/r.0.0.mca"), Path.of("region/r.0.1.mca")),
+            listFiles(restored));
+        assertArrayEquals(Files.readAllBytes(world.resolve("region/r.0.1.mca")), Files.readAllBytes(restored.resolve("region/r.0.1.mca")));
+        assertArrayEquals(Files.readAllBytes(world.resolve("level.dat")), Files.readAllBytes(restored.resolve("level.dat")));
+        Path tempBlobs = tempDir.resolve("templates/blobs/tmp");
+        assertTrue(!Files.exists(tempBlobs) || listFiles(tempBlobs).isEmpty(), "Temporäre Blobs bleiben liegen");
+    }
+
+    @Test
+    void unchangedWorldWritesNoNewBlobs() throws IOException, InterruptedException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+        nextGeneration();
+
+        TemplateStore.Result second = store.snapshot("farm_mine", world);
+
+        assertEquals(0, second.getBlobsWritten());
+        assertEquals(3, countBlobs());
+    }
+
+    @Test
+    void onlyLevelDatIsLinked() throws IOException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+        Path restored = tempDir.resolve("restored");
+
+        TemplateStore.Result result = store.materialize("farm_mine", restored);
+
+        assertTrue(result.getLinked() <= 1);
+        // Regiondateien werden vom Server an Ort und Stelle beschrieben und dürfen die Vorlage nicht verändern
+        Files.write(restored.resolve("region/r.0.0.mca"), filled(8192, 9));
+        Path again = tempDir.resolve("again");
+        store.materialize("farm_mine", again);
+        assertArrayEquals(filled(8192, 1), Files.readAllBytes(again.resolve("region/r.0.0.mca")));
+    }
+
+    @Test
+    void materializeReplacesExistingWorld() throws IOException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+        Files.write(world.resolve("region/r.0.0.mca"), filled(4096, 7));
+        Files.write(world.resolve("region/r.5.5.mca"), filled(4096, 7));
+
+        store.materialize("farm_mine", world);
+
+        assertArrayEquals(filled(8192, 1), Files.readAllBytes(world.resolve("region/r.0.0.mca")));
+        assertFalse(Files.exists(world.resolve("region/r.5.5.mca")));
+        assertFalse(Files.exists(tempDir.resolve("farm_mine.restore")));
+    }
+
+    @Test
+    void failedMaterializeLeavesWorldUntouched() throws IOException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+        // Ein fehlender Blob lässt die Wiederherstellung mittendrin scheitern
+        try (Stream<Path> stream = Files.walk(tempDir.resolve("templates/blobs"))) {
+            Path blob = stream.filter(Files::isRegularFile).findFirst().orElseThrow();
+            Files.delete(blob);
+        }
+        Files.write(world.resolve("region/r.0.0.mca"), filled(4096, 7));
+
+        assertThrows(IOException.class, () -> store.materialize("farm_mine", world));
+
+        assertArrayEquals(filled(4096, 7), Files.readAllBytes(world.resolve("region/r.0.0.mca")));
+        assertFalse(Files.exists(tempDir.resolve("farm_mine.restore")));
+    }
+
+    @Test
+    void materializeUnknownTemplateFails() {
+        TemplateStore store = createStore();
+
+        assertThrows(IOException.class, () -> store.materialize("farm_mine", tempDir.resolve("restored")));
+    }
+
+    @Test
+    void materializeRejectsPathsOutsideWorld() throws IOException {
+        TemplateStore store = createStore();
+        store.snapshot("farm_mine", createWorld("farm_mine"));
+        Path manifests = tempDir.resolve("templates/manifests/farm_mine");
+        Path manifest;
+        try (Stream<Path> stream = Files.list(manifests)) {
+            manifest = stream.findFirst().orElseThrow();
+        }
+        String line = Files.readAllLines(manifest).get(0);
+        Files.writeString(manifest, line.substring(0, line.lastIndexOf(' ')) + " ../outside.dat\n");
+
+        assertThrows(IOException.class, () -> store.materialize("farm_mine", tempDir.resolve("restored")));
+        assertFalse(Files.exists(tempDir.resolve("outside.dat")));
+    }
+
+    @Test
+    void cleanupKeepsLatestGenerationsAndSharedBlobs() throws IOException, InterruptedException {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+        store.snapshot("farm_nether", createWorld("farm_nether"));
+        nextGeneration();
+        Files.write(world.resolve("region/r.0.1.mca"), filled(8192, 3));
+        store.snapshot("farm_mine", world);
+        assertEquals(4, countBlobs());
+
+        int removed = store.cleanup("farm_mine", 1);
+
+        // Der alte Inhalt von r.0.1.mca wird noch von farm_nether verwendet
+        assertEquals(0, removed);
+        assertEquals(4, countBlobs());
+
+        // Neue Generation von farm_nether, danach verweist niemand mehr auf den alten Inhalt von r.0.1.mca
+        nextGeneration();
+        Files.write(world.resolve("region/r.0.0.mca"), filled(8192, 4));
+        store.snapshot("farm_nether", world);
+        removed = store.cleanup("farm_nether", 1);
+
+        assertEquals(1, removed);
+        assertEquals(4, countBlobs());
+        Path restored = tempDir.resolve("restored");
+        store.materialize("farm_mine", restored);
+        assertArrayEquals(filled(8192, 3), Files.readAllBytes(restored.resolve("region/r.0.1.mca")));
+        assertArrayEquals(filled(8192, 1), Files.readAllBytes(restored.resolve("region/r.0.0.mca")));
+    }
+
+    @Test
+    void cleanupDuringSnapshotKeepsNewBlobs() throws Exception {
+        TemplateStore store = createStore();
+        Path world = createWorld("farm_mine");
+        store.snapshot("farm_mine", world);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int round = i;
+                futures.add(executor.submit(() -> {
+                    Files.write(world.resolve("region/r.0.1.mca"), filled(8192, 20 + round));
+                    store.snapshot("farm_mine", world);
+                    return null;
+                }));
+                futures.add(executor.submit(() -> store.cleanup("farm_mine", 1)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Die neueste Generation muss vollständig wiederherstellbar sein
+        Path restored = tempDir.resolve("restored");
+        TemplateStore.Result result = store.materialize("farm_mine", restored);
+        assertEquals(4, result.getFiles());
+    }
+}
@@ -0,0 +1,112 @@
+package de.farmreset.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldResetEngineTest {
+
+    private static final Logger LOGGER = Logger.getLogger(WorldResetEngineTest.class.getName());
+
+    @TempDir
+    Path tempDir;
+
+    private static Path createWorld(Path folder) throws IOException {
+        Files.createDirectories(folder.resolve("region"));
+        Files.createDirectories(folder.resolve("DIM-1/region"));
+        Files.write(folder.resolve("level.dat"), new byte[]{1, 2, 3});
+        Files.write(folder.resolve("region/r.0.0.mca"), new byte[8192]);
+        Files.write(folder.resolve("DIM-1/region/r.0.0.mca"), new byte[8192]);
+        return folder;
+    }
+
+    @Test
+    void deleteDirectoryRemovesWholeTree() throws IOException {
+        Path world = createWorld(tempDir.resolve("farm_mine"));
+
+        WorldResetEngine.deleteDirectory(world);
+
+        assertFalse(Files.exists(world));
+        assertTrue(Files.exists(tempDir));
+    }
+
+    @Test
+    void deleteDirectoryIgnoresMissingFolder() throws IOException {
+        WorldResetEngine.deleteDirectory(tempDir.resolve("gibt_es_nicht"));
+    }
+
+    @Test
+    void deleteDirectoryDoesNotFollowSymlinks() throws IOException {
+        Path outside = createWorld(tempDir.resolve("outside"));
+        Path world = createWorld(tempDir.resolve("farm_mine"));
+        try {
+            Files.createSymbolicLink(world.resolve("linked"), outside);
+            Files.createSymbolicLink(world.resolve("linked.dat"), outside.resolve("level.dat"));
+        } catch (UnsupportedOperationException | IOException e) {
+            // Dateisystem ohne symbolische Links, nichts zu prüfen
+            return;
+        }
+
+        WorldResetEngine.deleteDirectory(world);
+
+        assertFalse(Files.exists(world));
+        assertTrue(Files.exists(outside.resolve("level.dat")));
+        assertTrue(Files.exists(outside.resolve("region/r.0.0.mca")));
+    }
+
+    @Test
+    void runDeletesMarkedWorldsOnly() throws IOException {
+        Path mine = createWorld(tempDir.resolve("farm_mine"));
+        Path nether = createWorld(tempDir.resolve("farm_nether"));
+        Path lobby = createWorld(tempDir.resolve("lobby"));
+        PendingResets pending = PendingResets.load(tempDir.resolve(PendingResets.FILE_NAME));
+        pending.markDelete("farm_mine");
+        pending.markRestore("farm_nether");
+
+        Set<String> completed = new WorldResetEngine(tempDir, null, 2, LOGGER).run(pending);
+
+        assertEquals(Set.of("farm_mine", "farm_nether"), completed);
+        assertFalse(Files.exists(mine));
+        // Ohne Vorlage bleibt die Welt gelöscht und wird beim Start neu generiert
+        assertFalse(Files.exists(nether));
+        assertTrue(Files.exists(lobby.resolve("level.dat")));
+    }
+
+    @Test
+    void runRestoresWorldFromTemplate() throws IOException {
+        Path nether = createWorld(tempDir.resolve("worlds/farm_nether"));
+        TemplateStore templates = new TemplateStore(tempDir.resolve("templates"), 2, LOGGER);
+        templates.snapshot("farm_nether", nether);
+        Files.write(nether.resolve("region/r.1.0.mca"), new byte[4096]);
+        PendingResets pending = PendingResets.load(tempDir.resolve(PendingResets.FILE_NAME));
+        pending.markRestore("farm_nether");
+
+        Set<String> completed = new WorldResetEngine(tempDir.resolve("worlds"), templates, 2, LOGGER).run(pending);
+
+        assertEquals(Set.of("farm_nether"), completed);
+        assertTrue(Files.exists(nether.resolve("level.dat")));
+        assertTrue(Files.exists(nether.resolve("DIM-1/region/r.0.0.mca")));
+        assertFalse(Files.exists(nether.resolve("region/r.1.0.mca")));
+    }
+
+    @Test
+    void unknownEntriesAreDropped() throws IOException {
+        Path file = tempDir.resolve(PendingResets.FILE_NAME);
+        Files.writeString(file, "world.lobby=EXPLODE\n");
+        Path lobby = createWorld(tempDir.resolve("lobby"));
+
+        Set<String> completed = new WorldResetEngine(tempDir, null, 1, LOGGER).run(PendingResets.load(file));
+
+        assertEquals(Set.of("lobby"), completed);
+        assertTrue(Files.exists(lobby.resolve("level.dat")));
+    }
+}